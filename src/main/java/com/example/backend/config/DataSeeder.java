@@ -74,6 +74,7 @@ public class DataSeeder implements CommandLineRunner {
 
         // 10 Math questions
         List<String> opts = List.of("A", "B", "C", "D");
+        String studentPassword = passwordEncoder.encode("password123");
         String[] mathQuestions = {
                 "What is 2 + 2?",
                 "What is 5 × 6?",
@@ -95,7 +96,7 @@ public class DataSeeder implements CommandLineRunner {
             student.setFirstname("John");
             student.setLastname("Doe");
             student.setMobileNumber("1234567890");
-            student.setPassword("password123"); // Set default password
+            student.setPassword(studentPassword); // Default password "password123"
 
             Student savedStudent = studentRepository.save(student);
             q.setSubject(Subject.MATH);
@@ -0,0 +1,94 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the API requests in flight when requests run on virtual threads.
+ *
+ * With platform threads Tomcat's pool is the limit. Virtual threads remove it, so
+ * without a cap a surge turns into thousands of threads queued on the JDBC pool until
+ * they time out with a 500. By default the cap is a multiple of the connection pool size;
+ * a request that cannot get a permit within the queue timeout gets a 503 with
+ * Retry-After instead.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+    private final Counter rejected;
+
+    public RequestConcurrencyLimitFilter(DataSource dataSource,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${web.concurrency.max-in-flight:0}") int maxInFlight,
+                                         @Value("${web.concurrency.per-connection:4}") int perConnection,
+                                         @Value("${web.concurrency.queue-timeout-millis:2000}") long queueTimeoutMillis) {
+        int limit = maxInFlight > 0 ? maxInFlight : poolSize(dataSource) * perConnection;
+        this.permits = new Semaphore(limit, true);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.rejected = meterRegistry.counter("web.concurrency.rejected");
+        meterRegistry.gauge("web.concurrency.in-flight", permits, p -> limit - p.availablePermits());
+        log.info("Virtual-thread request handling: at most {} API requests in flight", limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Server busy, please retry\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return 10;
+    }
+}
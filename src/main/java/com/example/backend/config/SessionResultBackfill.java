@@ -0,0 +1,27 @@
+package com.example.backend.config;
+
+import com.example.backend.service.AssessmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores results for completed sessions finished before results were persisted,
+ * so history and teacher listings, which only read stored results, stay complete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionResultBackfill implements CommandLineRunner {
+
+    private final AssessmentService assessmentService;
+
+    @Override
+    public void run(String... args) {
+        int backfilled = assessmentService.backfillMissingResults();
+        if (backfilled > 0) {
+            log.info("Stored results for {} completed session(s) without one", backfilled);
+        }
+    }
+}
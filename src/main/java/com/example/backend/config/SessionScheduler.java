@@ -1,41 +1,163 @@
 package com.example.backend.config;
 
-import com.example.backend.domain.ExamSession;
 import com.example.backend.domain.SessionStatus;
 import com.example.backend.repository.ExamSessionRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.backend.service.DashboardStatsCache;
+import com.example.backend.service.ExamService;
+import com.example.backend.service.ResponsePartitionMaintenance;
+import com.example.backend.service.SessionDeadlineWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class SessionScheduler {
 
     private final ExamSessionRepository examSessionRepository;
+    private final SessionDeadlineWheel deadlineWheel;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final ExamService examService;
+    private final ResponsePartitionMaintenance responsePartitions;
+    private final TaskScheduler taskScheduler;
+    private final int expiryMaxAgeHours;
+    private final int expiryChunkSize;
+    private final long expiryPauseMillis;
+    private final long deadlineRetryMillis;
+
+    private final Counter expiredSessions;
+    private final Counter autoSubmitRetries;
+
+    // Set while an expiry run still has chunks to go
+    private final AtomicBoolean expiryRunning = new AtomicBoolean();
+    private final Timer expiryChunks;
+
+    public SessionScheduler(ExamSessionRepository examSessionRepository,
+                            SessionDeadlineWheel deadlineWheel,
+                            DashboardStatsCache dashboardStatsCache,
+                            ExamService examService,
+                            ResponsePartitionMaintenance responsePartitions,
+                            TaskScheduler taskScheduler,
+                            MeterRegistry meterRegistry,
+                            @Value("${exam.expiry.max-age-hours:24}") int expiryMaxAgeHours,
+                            @Value("${exam.expiry.chunk-size:1000}") int expiryChunkSize,
+                            @Value("${exam.expiry.pause-millis:50}") long expiryPauseMillis,
+                            @Value("${exam.deadlines.retry-millis:5000}") long deadlineRetryMillis) {
+        this.examSessionRepository = examSessionRepository;
+        this.deadlineWheel = deadlineWheel;
+        this.dashboardStatsCache = dashboardStatsCache;
+        this.examService = examService;
+        this.responsePartitions = responsePartitions;
+        this.taskScheduler = taskScheduler;
+        this.expiryMaxAgeHours = expiryMaxAgeHours;
+        this.expiryChunkSize = expiryChunkSize;
+        this.expiryPauseMillis = expiryPauseMillis;
+        this.deadlineRetryMillis = deadlineRetryMillis;
+
+        this.expiredSessions = meterRegistry.counter("exam.sessions.expired");
+        this.expiryChunks = meterRegistry.timer("exam.sessions.expiry.chunk");
+        this.autoSubmitRetries = meterRegistry.counter("exam.deadlines.retries");
+    }
 
     /**
-     * Runs at 2 AM daily. Expires any STARTED sessions older than 24 hours.
+     * Loads the deadline of every running session, so time limits survive a restart.
      */
-    @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
-    public void expireAbandonedSessions() {
-        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
-        List<ExamSession> abandoned = examSessionRepository
-                .findByStatusAndStartTimeBefore(SessionStatus.STARTED, cutoff);
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        List<ExamSessionRepository.DeadlineRow> running = examSessionRepository
+                .findDeadlinesByStatus(SessionStatus.STARTED);
+        running.forEach(row -> deadlineWheel.schedule(row.getSessionId(), row.getStartTime(), row.getTimeLimitSeconds()));
+        log.info("Session deadlines: loaded {} running session(s)", running.size());
+    }
+
+    /**
+     * Resets the dashboard counters from the database, on startup and periodically after.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${exam.stats.reconcile-millis:300000}",
+            initialDelayString = "${exam.stats.reconcile-millis:300000}")
+    public void reconcileDashboardStats() {
+        dashboardStatsCache.reconcile();
+    }
+
+    /**
+     * Creates the coming months' student_responses partitions, on startup and periodically after.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${exam.partitions.interval-millis:21600000}",
+            initialDelayString = "${exam.partitions.interval-millis:21600000}")
+    public void createResponsePartitions() {
+        responsePartitions.createAhead();
+    }
 
-        if (abandoned.isEmpty()) {
-            log.info("Session expiry job: no abandoned sessions found");
+    /**
+     * Submits every session whose time limit ran out since the previous tick. A failed
+     * submission is tried again later rather than leaving the session running.
+     */
+    @Scheduled(fixedRateString = "${exam.deadlines.tick-millis:1000}")
+    public void submitExpiredSessions() {
+        for (UUID sessionId : deadlineWheel.advance()) {
+            try {
+                if (examService.autoSubmit(sessionId)) {
+                    log.info("Session {} submitted automatically at its time limit", sessionId);
+                }
+            } catch (RuntimeException e) {
+                log.error("Automatic submission of session {} failed, retrying in {} ms",
+                        sessionId, deadlineRetryMillis, e);
+                deadlineWheel.retry(sessionId, deadlineRetryMillis);
+                autoSubmitRetries.increment();
+            }
+        }
+    }
+
+    /**
+     * Expires STARTED sessions older than the configured age. Each chunk is its own
+     * short transaction, so exam_sessions rows are never locked for long. Between full
+     * chunks the next one is scheduled after the pause instead of sleeping, so the
+     * shared scheduler threads stay free for the deadline tick.
+     */
+    @Scheduled(fixedDelayString = "${exam.expiry.interval-millis:300000}")
+    public void expireAbandonedSessions() {
+        if (!expiryRunning.compareAndSet(false, true)) {
             return;
         }
+        expireChunk(LocalDateTime.now().minusHours(expiryMaxAgeHours), 0);
+    }
+
+    private void expireChunk(LocalDateTime cutoff, int expiredBefore) {
+        int expired;
+        try {
+            Timer.Sample sample = Timer.start();
+            expired = examSessionRepository.updateStatusChunk(
+                    SessionStatus.STARTED.name(), cutoff, SessionStatus.EXPIRED.name(), expiryChunkSize);
+            sample.stop(expiryChunks);
+        } catch (RuntimeException e) {
+            expiryRunning.set(false);
+            throw e;
+        }
+        expiredSessions.increment(expired);
+        int total = expiredBefore + expired;
 
-        abandoned.forEach(session -> session.setStatus(SessionStatus.EXPIRED));
-        examSessionRepository.saveAll(abandoned);
-        log.info("Session expiry job: expired {} abandoned session(s)", abandoned.size());
+        if (expired == expiryChunkSize) {
+            taskScheduler.schedule(() -> expireChunk(cutoff, total), Instant.now().plusMillis(expiryPauseMillis));
+            return;
+        }
+        expiryRunning.set(false);
+        if (total > 0) {
+            log.info("Session expiry job: expired {} abandoned session(s)", total);
+        }
     }
 }
@@ -0,0 +1,47 @@
+package com.example.backend.controller;
+
+/**
+ * Reads {@code Accept-Encoding} the way RFC 9110 defines it: a coding listed with
+ * {@code q=0} is refused, and {@code *} covers codings not listed explicitly.
+ */
+public final class ContentCoding {
+
+    private ContentCoding() {
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality(parts);
+            } else if (coding.equals("*")) {
+                any = quality(parts);
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // A malformed weight is not a reason to send a coding the client may not decode
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.controller;
+
+/**
+ * Evaluates {@code If-None-Match} the way RFC 9110 defines it: entity tags are compared
+ * weakly, so a {@code W/} prefix on either side is ignored, and {@code *} matches any
+ * current representation.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = opaque(etag);
+        for (String element : ifNoneMatch.split(",")) {
+            String tag = element.trim();
+            if (tag.equals("*") || opaque(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
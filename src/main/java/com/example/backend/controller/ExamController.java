@@ -1,9 +1,16 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.*;
+import com.example.backend.service.ExamAdmissionControl;
 import com.example.backend.service.ExamService;
+import com.example.backend.service.IdempotencyCache;
+import com.example.backend.service.QuestionPagePayloadCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,23 +22,39 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ExamController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final ExamService examService;
+    private final ExamAdmissionControl examAdmissionControl;
+    private final IdempotencyCache idempotencyCache;
 
     @GetMapping
     public ResponseEntity<List<StudentExamDto>> getAllExams() {
         return ResponseEntity.ok(examService.getAllStudentExams());
     }
 
+    /**
+     * Starts the session, or answers 202 with the student's place in the waiting room
+     * when starts are being throttled. The client repeats the request after Retry-After.
+     * Start, submit and finish accept an Idempotency-Key; a repeated key gets the
+     * original response without running the request again.
+     */
     @PostMapping("/start")
-    public ResponseEntity<ExamSessionResponse> startExam(
+    public ResponseEntity<?> startExam(
             @RequestParam("studentId") UUID studentId,
-            @RequestParam(value = "examId", required = false) Long examId) {
-        // If examId is null, we might want to throw or handle default.
-        // Service now requires it (or logic handles it).
-        // Let's make it optional in Controller for backward compat if needed, but
-        // Service throws if null.
-        // Actually best to make it required if we enforce selection.
-        return ResponseEntity.ok(examService.startExamSession(studentId, examId));
+            @RequestParam(value = "examId", required = false) Long examId,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        ExamAdmissionControl.Admission admission = idempotencyCache.execute("start", studentId, idempotencyKey,
+                () -> examAdmissionControl.start(studentId, examId),
+                ExamAdmissionControl.Admission::admitted);
+        if (admission.admitted()) {
+            return ResponseEntity.ok(admission.session());
+        }
+        WaitingRoomDto waitingRoom = admission.waitingRoom();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(waitingRoom.retryAfterSeconds()))
+                .cacheControl(CacheControl.noStore())
+                .body(waitingRoom);
     }
 
     @GetMapping("/{sessionId}/questions")
@@ -42,6 +65,47 @@ public class ExamController {
         return ResponseEntity.ok(examService.getExamQuestionsPage(sessionId, page, size));
     }
 
+    /**
+     * Same questions as {@link #getQuestions}, without the student's choices, served from
+     * pre-serialized bytes with a strong ETag. Choices come from {@link #getAnswers}.
+     */
+    @GetMapping("/{sessionId}/questions/content")
+    public ResponseEntity<byte[]> getQuestionContent(
+            @PathVariable UUID sessionId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        QuestionPagePayloadCache.RenderedPage rendered = examService.getQuestionContentPage(sessionId, page, size);
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        String etag = gzip ? rendered.gzipEtag() : rendered.etag();
+        boolean notModified = EntityTags.matches(ifNoneMatch, etag);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return builder.build();
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = gzip ? rendered.gzip() : rendered.json();
+        return builder
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
+
+    @GetMapping("/{sessionId}/answers")
+    public ResponseEntity<List<AnswerDto>> getAnswers(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(examService.getSessionAnswers(sessionId));
+    }
+
     @PutMapping("/{sessionId}/answers")
     public ResponseEntity<Void> saveAnswers(
             @PathVariable UUID sessionId,
@@ -50,14 +114,27 @@ public class ExamController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/{sessionId}/answers/batch")
+    public ResponseEntity<AnswerBatchResponse> saveAnswersBatch(
+            @PathVariable UUID sessionId,
+            @Valid @RequestBody List<@Valid AnswerDto> answers) {
+        return ResponseEntity.ok(examService.saveAnswersBatch(sessionId, answers));
+    }
+
     @PostMapping("/{sessionId}/submit")
-    public ResponseEntity<ExamSubmitResponse> submitExam(@PathVariable UUID sessionId) {
-        return ResponseEntity.ok(examService.submitExam(sessionId));
+    public ResponseEntity<ExamSubmitResponse> submitExam(
+            @PathVariable UUID sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyCache.execute("submit", sessionId, idempotencyKey,
+                () -> examService.submitExam(sessionId)));
     }
 
     @PostMapping("/{sessionId}/finish")
-    public ResponseEntity<ExamFinishResponse> finishExam(@PathVariable UUID sessionId) {
-        return ResponseEntity.ok(examService.finishExam(sessionId));
+    public ResponseEntity<ExamFinishResponse> finishExam(
+            @PathVariable UUID sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyCache.execute("finish", sessionId, idempotencyKey,
+                () -> examService.finishExam(sessionId)));
     }
 
     @GetMapping("/{sessionId}/result")
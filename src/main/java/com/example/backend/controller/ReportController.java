@@ -3,14 +3,23 @@ package com.example.backend.controller;
 import com.example.backend.domain.ExamSession;
 import com.example.backend.domain.SessionStatus;
 import com.example.backend.exception.NotFoundException;
-import com.example.backend.service.ReportService;
+import com.example.backend.service.ReportFileCache;
+import com.example.backend.service.ReportRenderQueue;
 import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.SessionResultRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Duration;
 import java.util.UUID;
 
 @RestController
@@ -18,11 +27,19 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ReportController {
 
-    private final ReportService reportService;
+    private final ReportRenderQueue reportRenderQueue;
     private final ExamSessionRepository sessionRepository;
+    private final SessionResultRepository sessionResultRepository;
 
+    /**
+     * Serves the cached report file, pinned in the cache until the response is complete.
+     * Range requests are answered by Spring's resource
+     * handling; the ETag changes only when the result is recomputed.
+     */
     @GetMapping("/{sessionId}/download")
-    public ResponseEntity<byte[]> downloadReport(@PathVariable UUID sessionId) throws Exception {
+    public ResponseEntity<Resource> downloadReport(
+            @PathVariable UUID sessionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws Exception {
 
         ExamSession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new NotFoundException("Session not found"));
@@ -32,7 +49,23 @@ public class ReportController {
                     "Report is only available after the exam is completed");
         }
 
-        byte[] pdfBytes = reportService.generatePdf(session.getStudent().getId(), sessionId);
+        // The ETag depends only on the result revision, so a revalidation is answered
+        // before anything is rendered or read from disk
+        int revision = sessionResultRepository.findRevisionBySessionId(sessionId)
+                .orElseThrow(() -> new NotFoundException("Result not found"));
+        String etag = ReportFileCache.etag(sessionId, revision);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ReportFileCache.CachedReport report = reportRenderQueue.getReport(session.getStudent().getId(), sessionId);
+        // The body is written after this method returns; keep the file pinned until then
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                "report:" + sessionId, report::close, RequestAttributes.SCOPE_REQUEST);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -44,6 +77,8 @@ public class ReportController {
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .eTag(report.etag())
+                .cacheControl(cacheControl)
+                .body(new FileSystemResource(report.path()));
     }
-}
\ No newline at end of file
+}
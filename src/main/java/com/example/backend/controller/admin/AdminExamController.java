@@ -2,17 +2,36 @@ package com.example.backend.controller.admin;
 
 import com.example.backend.domain.Exam;
 import com.example.backend.domain.Question;
+import com.example.backend.dto.CounterCheckDto;
 import com.example.backend.dto.CreateExamDto;
 import com.example.backend.dto.QuestionCreationDto;
+import com.example.backend.dto.SessionProgressDto;
+import com.example.backend.dto.TeacherStudentResultDto;
+import com.example.backend.exception.BadRequestException;
+import com.example.backend.repository.ExamSessionRepository;
 import com.example.backend.service.ExamAuthoringService;
+import com.example.backend.service.ReportArchiveService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/teacher")
@@ -20,16 +39,83 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
 public class AdminExamController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    // One import is one transaction holding every question in memory
+    static final int MAX_IMPORT_QUESTIONS = 1000;
+    private static final Set<String> RESULT_SORT_KEYS = Set.of("completedAt", "totalPercentage", "examTitle", "lastName");
+
     private final ExamAuthoringService examAuthoringService;
+    private final ReportArchiveService reportArchiveService;
 
     @GetMapping("/exams")
     public ResponseEntity<List<Exam>> getAllExams() {
         return ResponseEntity.ok(examAuthoringService.getAllExams());
     }
 
+    /**
+     * Graded sessions matching the optional filters. Without {@code page} and {@code size}
+     * every match is returned, as this endpoint always did; with either, one page of at
+     * most 100. The body stays a plain list; the number of matches is sent in
+     * {@code X-Total-Count}. Ties in the sort key are ordered by session id, so pages
+     * neither repeat nor skip rows.
+     */
     @GetMapping("/results")
-    public ResponseEntity<List<com.example.backend.dto.TeacherStudentResultDto>> getAllResults() {
-        return ResponseEntity.ok(examAuthoringService.getAllStudentResults());
+    public ResponseEntity<List<TeacherStudentResultDto>> getAllResults(
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double minPercentage,
+            @RequestParam(required = false) Double maxPercentage,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "completedAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+        if (!RESULT_SORT_KEYS.contains(sortBy)) {
+            throw new BadRequestException("Unsupported sort key: " + sortBy);
+        }
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by("sessionId"));
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged(sort)
+                : PageRequest.of(page == null ? 0 : Math.max(0, page),
+                        size == null ? 20 : Math.max(1, Math.min(size, 100)), sort);
+        Page<TeacherStudentResultDto> results = examAuthoringService.getStudentResults(
+                examId, from, to, minPercentage, maxPercentage, pageable);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
+    }
+
+    @PostMapping("/exams/{examId}/results/recompute")
+    public ResponseEntity<Map<String, Integer>> recomputeResults(@PathVariable Long examId) {
+        return ResponseEntity.ok(Map.of("recomputed", examAuthoringService.recomputeResults(examId)));
+    }
+
+    /**
+     * ZIP of every completed session's report for the exam, streamed as it is rendered.
+     */
+    @GetMapping("/exams/{examId}/reports.zip")
+    public ResponseEntity<StreamingResponseBody> downloadReportArchive(@PathVariable Long examId) {
+        List<ExamSessionRepository.ReportTargetRow> targets = reportArchiveService.targets(examId);
+        StreamingResponseBody body = out -> reportArchiveService.writeArchive(targets, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("exam_" + examId + "_reports.zip")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/exams/{examId}/progress")
+    public ResponseEntity<List<SessionProgressDto>> getLiveProgress(@PathVariable Long examId) {
+        return ResponseEntity.ok(examAuthoringService.getLiveProgress(examId));
+    }
+
+    @PostMapping("/sessions/{sessionId}/counters/check")
+    public ResponseEntity<CounterCheckDto> checkSessionCounters(
+            @PathVariable UUID sessionId,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(examAuthoringService.checkSessionCounters(sessionId, repair));
     }
 
     @PostMapping("/exams")
@@ -45,6 +131,17 @@ public class AdminExamController {
                 .body(examAuthoringService.addQuestion(examId, dto));
     }
 
+    @PostMapping("/exams/{examId}/questions/import")
+    public ResponseEntity<Map<String, Integer>> importQuestions(
+            @PathVariable Long examId,
+            @RequestBody List<@Valid QuestionCreationDto> dtos) {
+        if (dtos.size() > MAX_IMPORT_QUESTIONS) {
+            throw new BadRequestException("At most " + MAX_IMPORT_QUESTIONS + " questions per import");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("imported", examAuthoringService.importQuestions(examId, dtos)));
+    }
+
     @PutMapping("/questions/{questionId}")
     public ResponseEntity<Question> updateQuestion(
             @PathVariable Long questionId,
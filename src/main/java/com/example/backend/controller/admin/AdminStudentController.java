@@ -2,15 +2,18 @@ package com.example.backend.controller.admin;
 
 import com.example.backend.dto.AdminStudentViewDto;
 import com.example.backend.dto.DashboardStatsDto;
+import com.example.backend.dto.StudentDirectoryWindow;
 import com.example.backend.service.StudentManagementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
 
@@ -36,6 +39,15 @@ public class AdminStudentController {
         return ResponseEntity.ok(studentManagementService.getStudentDirectory(pageable));
     }
 
+    @GetMapping("/students/keyset")
+    public ResponseEntity<StudentDirectoryWindow> getStudentsAfter(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(studentManagementService.getStudentDirectoryAfter(
+                afterCreatedAt, afterId, Math.max(1, Math.min(size, 100))));
+    }
+
     @GetMapping("/students/{id}/contact-info")
     public ResponseEntity<Map<String, String>> getContactInfo(@PathVariable UUID id) {
         String mobile = studentManagementService.getStudentContactInfo(id);
@@ -0,0 +1,82 @@
+package com.example.backend.controller.admin;
+
+import com.example.backend.controller.ContentCoding;
+import com.example.backend.service.ResultExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class ResultExportController {
+
+    private final ResultExportService resultExportService;
+
+    /**
+     * Full result dump for teachers, streamed from a database cursor. Gzipped when the client accepts it.
+     */
+    @GetMapping("/api/v1/teacher/results/export")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTeacherResults(
+            @RequestParam(defaultValue = "CSV") ResultExportService.Format format,
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(format, examId, from, to, acceptEncoding);
+    }
+
+    /**
+     * The same dump for managers. Access matches the {@code /api/v1/manager/**} rule in SecurityConfig.
+     */
+    @GetMapping("/api/v1/manager/results/export")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportManagerResults(
+            @RequestParam(defaultValue = "CSV") ResultExportService.Format format,
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(format, examId, from, to, acceptEncoding);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ResultExportService.Format format, Long examId,
+                                                         LocalDateTime from, LocalDateTime to,
+                                                         String acceptEncoding) {
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                resultExportService.export(format, examId, from, to, zipped);
+                zipped.finish();
+            } else {
+                resultExportService.export(format, examId, from, to, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("results." + format.extension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+}
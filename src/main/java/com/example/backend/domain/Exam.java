@@ -3,18 +3,28 @@ package com.example.backend.domain;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Cached in the second-level cache together with its question list. Authoring writes
+ * go through Hibernate, which updates the cached entries on commit; the question list
+ * is the inverse side, so it is evicted whenever one of its questions is written
+ * ({@code hibernate.cache.auto_evict_collection_cache}).
+ */
 @Entity
 @Table(name = "exams")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "exams")
 @Getter
 @Setter
 public class Exam {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exams_seq")
+    @SequenceGenerator(name = "exams_seq", sequenceName = "exams_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,6 +34,7 @@ public class Exam {
     private int timeLimitSeconds;
 
     @OneToMany(mappedBy = "exam", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "exam-questions")
     private List<Question> questions = new ArrayList<>();
 
     public Long getId() {
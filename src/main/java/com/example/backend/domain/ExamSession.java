@@ -1,26 +1,33 @@
 package com.example.backend.domain;
 
+import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
 @Data
-@Table(name = "exam_sessions", indexes = {
-        @Index(name = "idx_student_status", columnList = "student_id, status")
-})
+// Indexes, including the one-running-session-per-student index that startExamSession
+// relies on, are defined in the migrations under db/migration
+@Table(name = "exam_sessions")
 @AllArgsConstructor
 @NoArgsConstructor
 public class ExamSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,6 +47,32 @@ public class ExamSession {
 
     private LocalDateTime submitTime;
 
+    // Running counters per subject (total = answered), updated by delta on every answer save
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "subject_counters", columnDefinition = "jsonb", nullable = false)
+    private Map<Subject, SubjectScore> subjectCounters = new EnumMap<>(Subject.class);
+
     @OneToMany(mappedBy = "session", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<StudentResponse> responses = new ArrayList<>();
+
+    public void applyAnswerDelta(Subject subject, int answeredDelta, int correctDelta) {
+        if (subject == null) {
+            return;
+        }
+        // Replaced rather than mutated, so the change is seen by dirty checking
+        Map<Subject, SubjectScore> counters = new EnumMap<>(Subject.class);
+        counters.putAll(subjectCounters);
+        counters.merge(subject, new SubjectScore(correctDelta, answeredDelta), SubjectScore::plus);
+        this.subjectCounters = counters;
+    }
+
+    public void resetCounters(ExamResult graded) {
+        Map<Subject, SubjectScore> counters = new EnumMap<>(Subject.class);
+        counters.putAll(graded.getSubjects());
+        this.subjectCounters = counters;
+    }
+
+    public int getAnsweredCount() {
+        return SubjectScore.sum(subjectCounters.values()).total();
+    }
 }
\ No newline at end of file
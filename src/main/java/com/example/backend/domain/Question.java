@@ -3,17 +3,21 @@ package com.example.backend.domain;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.util.List;
 
 @Entity
 @Table(name = "questions")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "questions")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class Question {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+    @SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
     private Long id;
 
     // Many-to-One relationship back to Exam
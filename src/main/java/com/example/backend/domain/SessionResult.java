@@ -0,0 +1,64 @@
+package com.example.backend.domain;
+
+import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Grading outcome of a completed session, written once when the session is finished
+ * and read by every result, history, listing and report path afterwards.
+ * {@code revision} is bumped each time the result is recomputed.
+ */
+@Entity
+@Table(name = "session_results")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SessionResult {
+
+    @Id
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id")
+    private ExamSession session;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "subject_scores", columnDefinition = "jsonb", nullable = false)
+    private Map<Subject, SubjectScore> subjectScores = new EnumMap<>(Subject.class);
+
+    private int totalCorrect;
+    private int totalQuestions;
+    private double totalPercentage;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private int revision;
+
+    public void apply(ExamResult result) {
+        Map<Subject, SubjectScore> scores = new EnumMap<>(Subject.class);
+        scores.putAll(result.getSubjects());
+        this.subjectScores = scores;
+        this.totalCorrect = result.getTotalCorrect();
+        this.totalQuestions = result.getTotalQuestions();
+        this.totalPercentage = result.getTotalPercentage();
+    }
+
+    public ExamResult toExamResult() {
+        return new ExamResult(subjectScores, completedAt);
+    }
+}
@@ -9,20 +9,28 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
+// Partitioned by month of session_start, see the migrations under db/migration
 @Table(name = "student_responses", uniqueConstraints = {
-        @UniqueConstraint(name = "uc_session_question", columnNames = {"session_id", "question_id"})
+        @UniqueConstraint(name = "uc_session_question", columnNames = {"session_id", "question_id", "session_start"})
 })
 @AllArgsConstructor
 @NoArgsConstructor
 public class StudentResponse {
+    // Rows are written by the set-based answer upsert, which takes one id per row from the
+    // column default, so the sequence steps by one
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_responses_seq")
+    @SequenceGenerator(name = "student_responses_seq", sequenceName = "student_responses_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "session_id", nullable = false)
     private ExamSession session;
 
+    /** The session's start time, copied as the partition key. */
+    @Column(name = "session_start", nullable = false, updatable = false)
+    private LocalDateTime sessionStart;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "question_id", nullable = false)
     private Question question;
@@ -32,4 +40,11 @@ public class StudentResponse {
 
     @Column(name = "submitted_at")
     private LocalDateTime submittedAt;
-}
\ No newline at end of file
+
+    @PrePersist
+    void copySessionStart() {
+        if (sessionStart == null) {
+            sessionStart = session.getStartTime();
+        }
+    }
+}
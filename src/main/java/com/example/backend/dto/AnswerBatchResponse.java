@@ -0,0 +1,9 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public record AnswerBatchResponse(
+        int savedCount,
+        int rejectedCount,
+        List<AnswerOutcome> outcomes
+) {}
@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+public record AnswerOutcome(
+        Long questionId,
+        Status status,
+        String message
+) {
+
+    public enum Status {
+        SAVED,      // upserted
+        SUPERSEDED, // same question appears later in the batch, the later answer wins
+        REJECTED    // question unknown or not part of this exam
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.dto;
+
+import java.util.UUID;
+
+public record CounterCheckDto(
+        UUID sessionId,
+        boolean consistent,
+        boolean repaired,
+        ExamResult running,
+        ExamResult recomputed
+) {}
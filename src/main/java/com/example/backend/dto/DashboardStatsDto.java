@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -11,4 +13,7 @@ public class DashboardStatsDto {
     private long totalStudents;
     private long studentsRegisteredToday;
     private long examsCompleted;
+    private long sessionsInProgress;
+    private long examsCompletedToday;
+    private Map<Long, Long> completionsByExam;
 }
@@ -1,52 +1,56 @@
 package com.example.backend.dto;
 
+import com.example.backend.domain.Subject;
+
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 
 public class ExamResult {
 
-    private final int mathCorrect;
-    private final int mathTotal;
-    private final double mathPercentage;
-
-    private final int englishCorrect;
-    private final int englishTotal;
-    private final double englishPercentage;
+    private final Map<Subject, SubjectScore> subjects;
 
     private final int totalCorrect;
     private final int totalQuestions;
     private final double totalPercentage;
 
-    private final LocalDateTime completedAt; // add this field
-
-    public ExamResult(int mathCorrect, int mathTotal, double mathPercentage,
-                      int englishCorrect, int englishTotal, double englishPercentage,
-                      LocalDateTime completedAt) { // update constructor
-        this.mathCorrect = mathCorrect;
-        this.mathTotal = mathTotal;
-        this.mathPercentage = mathPercentage;
+    private final LocalDateTime completedAt;
 
-        this.englishCorrect = englishCorrect;
-        this.englishTotal = englishTotal;
-        this.englishPercentage = englishPercentage;
+    /**
+     * Result over any set of subjects; subjects missing from the map count as 0 of 0.
+     */
+    public ExamResult(Map<Subject, SubjectScore> scores, LocalDateTime completedAt) {
+        Map<Subject, SubjectScore> copy = new EnumMap<>(Subject.class);
+        copy.putAll(scores);
+        this.subjects = Collections.unmodifiableMap(copy);
 
-        this.totalCorrect = mathCorrect + englishCorrect;
-        this.totalQuestions = mathTotal + englishTotal;
-        this.totalPercentage = totalQuestions == 0 ? 0 : ((double) totalCorrect / totalQuestions) * 100;
+        SubjectScore total = SubjectScore.sum(copy.values());
+        this.totalCorrect = total.correct();
+        this.totalQuestions = total.total();
+        this.totalPercentage = total.percentage();
 
         this.completedAt = completedAt;
     }
 
-    public int getMathCorrect() { return mathCorrect; }
-    public int getMathTotal() { return mathTotal; }
-    public double getMathPercentage() { return mathPercentage; }
+    public SubjectScore score(Subject subject) {
+        return subjects.getOrDefault(subject, SubjectScore.NONE);
+    }
+
+    // Flat per-subject fields kept in the JSON for existing clients; getSubjects() has them all
+    public int getMathCorrect() { return score(Subject.MATH).correct(); }
+    public int getMathTotal() { return score(Subject.MATH).total(); }
+    public double getMathPercentage() { return score(Subject.MATH).percentage(); }
 
-    public int getEnglishCorrect() { return englishCorrect; }
-    public int getEnglishTotal() { return englishTotal; }
-    public double getEnglishPercentage() { return englishPercentage; }
+    public int getEnglishCorrect() { return score(Subject.ENGLISH).correct(); }
+    public int getEnglishTotal() { return score(Subject.ENGLISH).total(); }
+    public double getEnglishPercentage() { return score(Subject.ENGLISH).percentage(); }
 
     public int getTotalCorrect() { return totalCorrect; }
     public int getTotalQuestions() { return totalQuestions; }
     public double getTotalPercentage() { return totalPercentage; }
 
-    public LocalDateTime getCompletedAt() { return completedAt; } // add getter
-}
\ No newline at end of file
+    public Map<Subject, SubjectScore> getSubjects() { return subjects; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The session-independent part of {@link QuestionResponseDto}: identical for every
+ * student sitting the exam, so it can be rendered once and shared.
+ */
+@Data
+@AllArgsConstructor
+public class QuestionContentDto {
+    private Long id;
+    private String content;
+    private List<String> options;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class QuestionContentPageResponse {
+    private List<QuestionContentDto> questions;
+    private int totalPages;
+    private int currentPage;
+    private boolean isLastPage;
+}
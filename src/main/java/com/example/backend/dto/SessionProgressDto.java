@@ -0,0 +1,13 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SessionProgressDto(
+        UUID sessionId,
+        String studentName,
+        LocalDateTime startTime,
+        int answeredCount,
+        int correctCount,
+        int totalCount
+) {}
@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One keyset page of the student directory. Pass {@code nextCreatedAt} and {@code nextId}
+ * back to read the following page; both are null on the last page.
+ */
+public record StudentDirectoryWindow(
+        List<AdminStudentViewDto> students,
+        LocalDateTime nextCreatedAt,
+        UUID nextId
+) {}
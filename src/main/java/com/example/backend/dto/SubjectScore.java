@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import java.util.Collection;
+
+public record SubjectScore(int correct, int total) {
+
+    public static final SubjectScore NONE = new SubjectScore(0, 0);
+
+    public double percentage() {
+        return total == 0 ? 0 : ((double) correct / total) * 100;
+    }
+
+    public SubjectScore plus(SubjectScore other) {
+        return new SubjectScore(correct + other.correct, total + other.total);
+    }
+
+    public static SubjectScore sum(Collection<SubjectScore> scores) {
+        return scores.stream().reduce(NONE, SubjectScore::plus);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.dto;
+
+/**
+ * Returned instead of a session while the student waits to be admitted. The client
+ * repeats the start request after {@code retryAfterSeconds}.
+ */
+public record WaitingRoomDto(
+        long position,
+        long estimatedWaitSeconds,
+        int retryAfterSeconds
+) {}
@@ -2,11 +2,25 @@ package com.example.backend.repository;
 
 import com.example.backend.domain.ExamSession;
 import com.example.backend.domain.SessionStatus;
+import com.example.backend.domain.Subject;
+import com.example.backend.dto.SubjectScore;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +29,143 @@ public interface ExamSessionRepository extends JpaRepository<ExamSession, UUID>
     List<ExamSession> findByStudentIdAndStatus(UUID studentId, SessionStatus status);
 
     List<ExamSession> findByStatusAndStartTimeBefore(SessionStatus status, LocalDateTime cutoff);
-}
\ No newline at end of file
+
+    /**
+     * Inserts a STARTED session unless the student already has one. The partial unique
+     * index on active sessions decides, so concurrent starts need no locking: exactly
+     * one insert wins and the others affect no rows. The query space limits second-level
+     * cache invalidation to exam_sessions; without it Hibernate evicts every cached region.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "exam_sessions"))
+    @Query(value = """
+            INSERT INTO exam_sessions (id, exam_id, student_id, status, start_time, subject_counters)
+            VALUES (:id, :examId, :studentId, 'STARTED', :startTime, '{}')
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfNoneActive(@Param("id") UUID id,
+                           @Param("examId") Long examId,
+                           @Param("studentId") UUID studentId,
+                           @Param("startTime") LocalDateTime startTime);
+
+    @Query("SELECT s.id AS sessionId, s.startTime AS startTime, e.timeLimitSeconds AS timeLimitSeconds " +
+            "FROM ExamSession s JOIN s.exam e WHERE s.student.id = :studentId AND s.status = :status " +
+            "ORDER BY s.startTime")
+    List<ActiveSessionRow> findActiveSessions(@Param("studentId") UUID studentId,
+                                              @Param("status") SessionStatus status);
+
+    /**
+     * Moves at most {@code chunkSize} sessions from one status to another in its own short
+     * transaction. Rows locked by a running request are skipped and picked up by a later chunk.
+     * The chunk is selected in a materialized CTE: as an IN subquery the planner may scan it
+     * once per outer row, and with SKIP LOCKED each scan can pick different rows.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "exam_sessions"))
+    @Query(value = """
+            WITH chunk AS MATERIALIZED (
+                SELECT id FROM exam_sessions
+                WHERE status = :status AND start_time < :cutoff
+                LIMIT :chunkSize
+                FOR UPDATE SKIP LOCKED)
+            UPDATE exam_sessions SET status = :newStatus
+            FROM chunk WHERE exam_sessions.id = chunk.id
+            """, nativeQuery = true)
+    int updateStatusChunk(@Param("status") String status,
+                          @Param("cutoff") LocalDateTime cutoff,
+                          @Param("newStatus") String newStatus,
+                          @Param("chunkSize") int chunkSize);
+
+    long countByStatus(SessionStatus status);
+
+    @Query("SELECT s.exam.id AS examId, COUNT(s) AS sessions FROM ExamSession s " +
+            "WHERE s.status = :status GROUP BY s.exam.id")
+    List<ExamCountRow> countPerExamByStatus(@Param("status") SessionStatus status);
+
+    @Query("SELECT s.id AS sessionId, st.id AS studentId, st.firstname AS firstName, st.lastname AS lastName " +
+            "FROM ExamSession s JOIN s.student st WHERE s.exam.id = :examId AND s.status = :status " +
+            "ORDER BY st.lastname, st.firstname, s.id")
+    List<ReportTargetRow> findReportTargets(@Param("examId") Long examId, @Param("status") SessionStatus status);
+
+    /**
+     * Which of the given statuses each of the given students has at least one session in.
+     */
+    @Query("SELECT DISTINCT s.student.id AS studentId, s.status AS status FROM ExamSession s " +
+            "WHERE s.student.id IN :studentIds AND s.status IN :statuses")
+    List<StudentStatusRow> findStatusesByStudentIds(@Param("studentIds") Collection<UUID> studentIds,
+                                                    @Param("statuses") Collection<SessionStatus> statuses);
+
+    @Query("SELECT s.id AS sessionId, s.startTime AS startTime, e.timeLimitSeconds AS timeLimitSeconds " +
+            "FROM ExamSession s JOIN s.exam e WHERE s.status = :status")
+    List<DeadlineRow> findDeadlinesByStatus(@Param("status") SessionStatus status);
+
+    @Query("SELECT s.id FROM ExamSession s WHERE s.exam.id = :examId AND s.status = :status")
+    List<UUID> findIdsByExamIdAndStatus(@Param("examId") Long examId, @Param("status") SessionStatus status);
+
+    /**
+     * Loads the session row locked for update, so concurrent answer saves apply their
+     * counter deltas one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ExamSession s WHERE s.id = :id")
+    Optional<ExamSession> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT s.id AS sessionId, st.firstname AS firstName, st.lastname AS lastName, " +
+            "s.startTime AS startTime, s.subjectCounters AS subjectCounters " +
+            "FROM ExamSession s JOIN s.student st " +
+            "WHERE s.exam.id = :examId AND s.status = :status ORDER BY s.startTime")
+    List<ProgressRow> findProgressByExamIdAndStatus(@Param("examId") Long examId,
+                                                    @Param("status") SessionStatus status);
+
+    interface ReportTargetRow {
+        UUID getSessionId();
+
+        UUID getStudentId();
+
+        String getFirstName();
+
+        String getLastName();
+    }
+
+    interface ExamCountRow {
+        Long getExamId();
+
+        long getSessions();
+    }
+
+    interface ActiveSessionRow {
+        UUID getSessionId();
+
+        LocalDateTime getStartTime();
+
+        int getTimeLimitSeconds();
+    }
+
+    interface StudentStatusRow {
+        UUID getStudentId();
+
+        SessionStatus getStatus();
+    }
+
+    interface DeadlineRow {
+        UUID getSessionId();
+
+        LocalDateTime getStartTime();
+
+        int getTimeLimitSeconds();
+    }
+
+    interface ProgressRow {
+        UUID getSessionId();
+
+        String getFirstName();
+
+        String getLastName();
+
+        LocalDateTime getStartTime();
+
+        Map<Subject, SubjectScore> getSubjectCounters();
+    }
+}
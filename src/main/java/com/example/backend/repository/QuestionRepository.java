@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+
 import java.util.List;
 
 @Repository
@@ -18,4 +19,4 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
 
     Page<Question> findByExamId(Long examId, Pageable pageable);
-}
\ No newline at end of file
+}
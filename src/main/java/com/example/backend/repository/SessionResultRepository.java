@@ -0,0 +1,115 @@
+package com.example.backend.repository;
+
+import com.example.backend.domain.SessionResult;
+import com.example.backend.domain.SessionStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface SessionResultRepository extends JpaRepository<SessionResult, UUID> {
+
+    long countByCompletedAtAfter(LocalDateTime dateTime);
+
+    @Query("SELECT r.revision FROM SessionResult r WHERE r.sessionId = :sessionId")
+    Optional<Integer> findRevisionBySessionId(@Param("sessionId") UUID sessionId);
+
+    @Query("SELECT s.id AS sessionId, st.firstname AS firstName, st.lastname AS lastName, e.title AS examTitle, " +
+            "r.totalCorrect AS totalCorrect, r.totalQuestions AS totalQuestions, " +
+            "r.totalPercentage AS totalPercentage, s.submitTime AS submitTime, r.completedAt AS completedAt " +
+            "FROM SessionResult r JOIN r.session s JOIN s.student st JOIN s.exam e " +
+            "WHERE st.id = :studentId ORDER BY r.completedAt DESC")
+    List<ResultRow> findRowsByStudentId(@Param("studentId") UUID studentId);
+
+    /**
+     * One page of graded sessions. Every filter is optional; the page is sorted by the
+     * select aliases ({@code completedAt}, {@code totalPercentage}, {@code examTitle},
+     * {@code lastName}).
+     *
+     * The timestamp filters are cast in their null checks: Postgres cannot infer the type
+     * of a bare {@code ? IS NULL} parameter bound as a timestamp.
+     */
+    @Query(value = "SELECT s.id AS sessionId, st.firstname AS firstName, st.lastname AS lastName, e.title AS examTitle, " +
+            "r.totalCorrect AS totalCorrect, r.totalQuestions AS totalQuestions, " +
+            "r.totalPercentage AS totalPercentage, s.submitTime AS submitTime, r.completedAt AS completedAt " +
+            "FROM SessionResult r JOIN r.session s JOIN s.student st JOIN s.exam e " +
+            "WHERE (:examId IS NULL OR e.id = :examId) " +
+            "AND (CAST(:from AS LocalDateTime) IS NULL OR r.completedAt >= :from) " +
+            "AND (CAST(:to AS LocalDateTime) IS NULL OR r.completedAt < :to) " +
+            "AND (:minPercentage IS NULL OR r.totalPercentage >= :minPercentage) " +
+            "AND (:maxPercentage IS NULL OR r.totalPercentage <= :maxPercentage)",
+            countQuery = "SELECT COUNT(r) FROM SessionResult r JOIN r.session s " +
+                    "WHERE (:examId IS NULL OR s.exam.id = :examId) " +
+                    "AND (CAST(:from AS LocalDateTime) IS NULL OR r.completedAt >= :from) " +
+                    "AND (CAST(:to AS LocalDateTime) IS NULL OR r.completedAt < :to) " +
+                    "AND (:minPercentage IS NULL OR r.totalPercentage >= :minPercentage) " +
+                    "AND (:maxPercentage IS NULL OR r.totalPercentage <= :maxPercentage)")
+    Page<ResultRow> findRows(@Param("examId") Long examId,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             @Param("minPercentage") Double minPercentage,
+                             @Param("maxPercentage") Double maxPercentage,
+                             Pageable pageable);
+
+    /**
+     * Every graded session matching the optional filters, oldest first, read through a
+     * forward-only cursor. Must be consumed and closed inside a read-only transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS sessionId, st.firstname AS firstName, st.lastname AS lastName, e.title AS examTitle, " +
+            "r.totalCorrect AS totalCorrect, r.totalQuestions AS totalQuestions, " +
+            "r.totalPercentage AS totalPercentage, s.submitTime AS submitTime, r.completedAt AS completedAt " +
+            "FROM SessionResult r JOIN r.session s JOIN s.student st JOIN s.exam e " +
+            "WHERE (:examId IS NULL OR e.id = :examId) " +
+            "AND (CAST(:from AS LocalDateTime) IS NULL OR r.completedAt >= :from) " +
+            "AND (CAST(:to AS LocalDateTime) IS NULL OR r.completedAt < :to) " +
+            "ORDER BY r.completedAt")
+    Stream<ResultRow> streamRows(@Param("examId") Long examId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Sessions with the given status that have no stored result yet.
+     */
+    @Query("SELECT s.id FROM ExamSession s WHERE s.status = :status " +
+            "AND NOT EXISTS (SELECT 1 FROM SessionResult r WHERE r.session = s)")
+    List<UUID> findSessionIdsWithoutResult(@Param("status") SessionStatus status);
+
+    /**
+     * Flat read model of one graded session, joined with its student and exam.
+     */
+    interface ResultRow {
+        UUID getSessionId();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getExamTitle();
+
+        int getTotalCorrect();
+
+        int getTotalQuestions();
+
+        double getTotalPercentage();
+
+        LocalDateTime getSubmitTime();
+
+        LocalDateTime getCompletedAt();
+    }
+}
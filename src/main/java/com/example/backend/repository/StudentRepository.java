@@ -1,10 +1,16 @@
 package com.example.backend.repository;
 
 import com.example.backend.domain.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +18,28 @@ import java.util.UUID;
 public interface StudentRepository extends JpaRepository<Student, UUID> {
     Optional<Student> findStudentByMobileNumber(String mobileNumber);
     long countByCreatedAtAfter(LocalDateTime dateTime);
+
+    /**
+     * Keyset page of the directory: students registered before the given (createdAt, id)
+     * position, newest first. Only the first {@code pageable.getPageSize()} rows are read.
+     */
+    @Query("SELECT s FROM Student s WHERE s.createdAt < :createdAt " +
+            "OR (s.createdAt = :createdAt AND s.id < :id) ORDER BY s.createdAt DESC, s.id DESC")
+    List<Student> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") UUID id,
+                                Pageable pageable);
+
+    @Query("SELECT s FROM Student s ORDER BY s.createdAt DESC, s.id DESC")
+    List<Student> findFirstPage(Pageable pageable);
+
+    /**
+     * Replaces the stored password only if it still has the expected value, so a
+     * background upgrade never overwrites a password changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Student s SET s.password = :replacement WHERE s.id = :id AND s.password = :expected")
+    int replacePassword(@Param("id") UUID id,
+                        @Param("expected") String expected,
+                        @Param("replacement") String replacement);
 }
@@ -1,11 +1,17 @@
 package com.example.backend.repository;
 
 import com.example.backend.domain.StudentResponse;
+import com.example.backend.domain.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,10 +19,96 @@ import java.util.UUID;
 @Repository
 public interface StudentResponseRepository extends JpaRepository<StudentResponse, Long> {
 
-    List<StudentResponse> findBySessionId(UUID sessionId);
+    /**
+     * Pins the partition key to the session's start time. The value comes from a scalar
+     * subquery, which Postgres evaluates once and uses to skip every other partition.
+     */
+    String IN_SESSION_PARTITION =
+            " AND r.sessionStart = (SELECT s.startTime FROM ExamSession s WHERE s.id = :sessionId)";
 
-    Optional<StudentResponse> findBySessionIdAndQuestionId(UUID sessionId, Long questionId);
+    @Query("SELECT r FROM StudentResponse r WHERE r.session.id = :sessionId" + IN_SESSION_PARTITION)
+    List<StudentResponse> findBySessionId(@Param("sessionId") UUID sessionId);
 
-    @Query("SELECT COUNT(r) FROM StudentResponse r WHERE r.session.id = :sessionId AND r.chosenIndex IS NOT NULL")
+    @Query("SELECT r FROM StudentResponse r WHERE r.session.id = :sessionId AND r.question.id = :questionId" +
+            IN_SESSION_PARTITION)
+    Optional<StudentResponse> findBySessionIdAndQuestionId(@Param("sessionId") UUID sessionId,
+                                                           @Param("questionId") Long questionId);
+
+    @Query("SELECT COUNT(r) FROM StudentResponse r WHERE r.session.id = :sessionId AND r.chosenIndex IS NOT NULL" +
+            IN_SESSION_PARTITION)
     long countAnsweredBySessionId(@Param("sessionId") UUID sessionId);
-}
\ No newline at end of file
+
+    @Query("SELECT r.question.id AS questionId, r.chosenIndex AS chosenIndex, r.session.exam.id AS examId " +
+            "FROM StudentResponse r WHERE r.session.id = :sessionId" + IN_SESSION_PARTITION)
+    List<ChoiceView> findChoicesBySessionId(@Param("sessionId") UUID sessionId);
+
+    /**
+     * Per-subject grading of one session in a single statement: responses joined with
+     * their questions and grouped by subject.
+     */
+    @Query("SELECT q.subject AS subject, COUNT(r) AS total, " +
+            "SUM(CASE WHEN r.chosenIndex = q.correctIndex THEN 1 ELSE 0 END) AS correct " +
+            "FROM StudentResponse r JOIN r.question q " +
+            "WHERE r.session.id = :sessionId AND q.subject IS NOT NULL" + IN_SESSION_PARTITION +
+            " GROUP BY q.subject")
+    List<SubjectScoreView> scoreBySubject(@Param("sessionId") UUID sessionId);
+
+    @Query("SELECT r.question.id AS questionId, r.chosenIndex AS chosenIndex, r.isCorrect AS correct " +
+            "FROM StudentResponse r WHERE r.session.id = :sessionId AND r.question.id IN :questionIds" +
+            IN_SESSION_PARTITION)
+    List<StoredAnswerView> findStoredAnswers(@Param("sessionId") UUID sessionId,
+                                             @Param("questionIds") List<Long> questionIds);
+
+    /**
+     * Inserts or updates one response per question in a single statement, relying on
+     * the {@code uc_session_question} constraint. The three arrays are parallel and a
+     * question id must not appear twice in the same call. The partition key is read from
+     * the session row. Only student_responses is written, so that is the one query space
+     * whose cached data is invalidated.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_responses"))
+    @Query(value = """
+            INSERT INTO student_responses (session_id, session_start, question_id, chosen_index, is_correct,
+                                           submitted_at)
+            SELECT s.id, s.start_time, a.question_id, a.chosen_index, a.is_correct, :submittedAt
+            FROM exam_sessions s,
+                 unnest(CAST(:questionIds AS bigint[]),
+                        CAST(:chosenIndexes AS integer[]),
+                        CAST(:correctFlags AS boolean[])) AS a(question_id, chosen_index, is_correct)
+            WHERE s.id = :sessionId
+            ON CONFLICT ON CONSTRAINT uc_session_question
+            DO UPDATE SET chosen_index = EXCLUDED.chosen_index,
+                          is_correct = EXCLUDED.is_correct,
+                          submitted_at = EXCLUDED.submitted_at
+            """, nativeQuery = true)
+    int upsertAnswers(@Param("sessionId") UUID sessionId,
+                      @Param("questionIds") Long[] questionIds,
+                      @Param("chosenIndexes") Integer[] chosenIndexes,
+                      @Param("correctFlags") Boolean[] correctFlags,
+                      @Param("submittedAt") LocalDateTime submittedAt);
+
+    interface ChoiceView {
+        Long getQuestionId();
+
+        Integer getChosenIndex();
+
+        Long getExamId();
+    }
+
+    interface StoredAnswerView {
+        Long getQuestionId();
+
+        Integer getChosenIndex();
+
+        Boolean getCorrect();
+    }
+
+    interface SubjectScoreView {
+        Subject getSubject();
+
+        long getTotal();
+
+        long getCorrect();
+    }
+}
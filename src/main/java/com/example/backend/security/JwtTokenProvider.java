@@ -1,29 +1,84 @@
 package com.example.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    /**
+     * The claims of a token whose signature and expiry have been checked.
+     */
+    public record VerifiedToken(String username, String role, long expiresAtMillis) {
+    }
+
     private final Key key;
     private final long validityInMilliseconds;
+    private final Clock clock;
+    private final JwtParser parser;
+
+    // Verified tokens by SHA-256 of the token, so the raw bearer tokens are not kept
+    private final Cache<String, VerifiedToken> verified;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
 
+    @Autowired
     public JwtTokenProvider(
+            MeterRegistry meterRegistry,
             @Value("${jwt.secret:default-secret-key-change-in-production-256bit}") String secret,
-            @Value("${jwt.expiration:28800000}") long validityInMilliseconds) {
+            @Value("${jwt.expiration:28800000}") long validityInMilliseconds,
+            @Value("${jwt.cache.max-entries:10000}") int cacheSize) {
+        this(meterRegistry, Clock.systemUTC(), secret, validityInMilliseconds, cacheSize);
+    }
+
+    JwtTokenProvider(MeterRegistry meterRegistry, Clock clock, String secret,
+                     long validityInMilliseconds, int cacheSize) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.validityInMilliseconds = validityInMilliseconds;
+        this.clock = clock;
+        // Parsers are immutable and thread-safe, so one serves every request
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setClock(() -> new Date(clock.millis()))
+                .build();
+
+        // Bounded with least-recently-used eviction; each entry also leaves at its token's exp.
+        // Time comes from the injected clock, maintenance runs on the calling thread.
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((String hash, VerifiedToken token) ->
+                        Duration.ofMillis(Math.max(0, token.expiresAtMillis() - clock.millis()))))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .executor(Runnable::run)
+                .build();
+
+        this.cacheHits = meterRegistry.counter("security.jwt.cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("security.jwt.cache", "result", "miss");
+        meterRegistry.gauge("security.jwt.cache.size", verified, Cache::estimatedSize);
     }
 
     public String generateToken(String username, String role) {
-        Date now = new Date();
+        Date now = new Date(clock.millis());
         Date expiry = new Date(now.getTime() + validityInMilliseconds);
 
         return Jwts.builder()
@@ -35,6 +90,40 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Checks the token's signature and expiry once and returns its claims. A token seen
+     * before is answered from the cache until its {@code exp}; invalid tokens are never
+     * cached.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String hash = hash(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        long now = clock.millis();
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                cacheHits.increment();
+                return Optional.of(cached);
+            }
+            verified.asMap().remove(hash, cached);
+        }
+        cacheMisses.increment();
+
+        Claims claims;
+        try {
+            claims = parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        // Tokens without exp are still accepted, but only ever verified in full
+        Date expiration = claims.getExpiration();
+        VerifiedToken result = new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                expiration != null ? expiration.getTime() : now);
+        if (expiration != null) {
+            verified.put(hash, result);
+        }
+        return Optional.of(result);
+    }
+
     public String getUsername(String token) {
         return parseClaims(token).getSubject();
     }
@@ -44,19 +133,24 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
-        try {
-            parseClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verify(token).isPresent();
+    }
+
+    long cachedTokens() {
+        verified.cleanUp();
+        return verified.estimatedSize();
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
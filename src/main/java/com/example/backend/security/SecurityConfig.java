@@ -46,8 +46,11 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/v3/api-docs/**",
-                                "/actuator/**")
+                                "/actuator/health/**",
+                                "/actuator/info")
                         .permitAll()
+                        // Metrics expose cache and traffic internals
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Role-based admin endpoints
                         .requestMatchers("/api/v1/manager/**").hasAnyRole("MANAGER", "ADMIN")
                         .requestMatchers("/api/v1/teacher/**").hasAnyRole("TEACHER", "ADMIN")
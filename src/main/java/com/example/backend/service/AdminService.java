@@ -5,26 +5,27 @@ import com.example.backend.domain.Role;
 import com.example.backend.exception.ConflictException;
 import com.example.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingPool passwordHashingPool;
 
-    @Transactional
+    // Hashes before touching the database, outside any transaction, so no pooled
+    // connection sits idle while the hashing pool is busy
     public AppUser createUser(String username, String password, Role role, String fullName) {
+        String passwordHash = passwordHashingPool.encode(password);
+
         if (userRepository.findByUsername(username).isPresent()) {
             throw new ConflictException("Username already exists: " + username);
         }
 
         AppUser user = new AppUser();
         user.setUsername(username);
-        user.setPasswordHash(passwordEncoder.encode(password));
+        user.setPasswordHash(passwordHash);
         user.setRole(role);
         user.setFullName(fullName);
 
@@ -1,55 +1,158 @@
 package com.example.backend.service;
 
-import com.example.backend.domain.StudentResponse;
+import com.example.backend.domain.ExamSession;
+import com.example.backend.domain.SessionResult;
+import com.example.backend.domain.SessionStatus;
 import com.example.backend.domain.Subject;
+import com.example.backend.dto.CounterCheckDto;
 import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
+import com.example.backend.exception.NotFoundException;
+import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.SessionResultRepository;
 import com.example.backend.repository.StudentResponseRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class AssessmentService {
 
     private final StudentResponseRepository responseRepo;
+    private final SessionResultRepository resultRepo;
+    private final ExamSessionRepository sessionRepo;
 
-    public AssessmentService(StudentResponseRepository responseRepo) {
+    public AssessmentService(StudentResponseRepository responseRepo,
+                             SessionResultRepository resultRepo,
+                             ExamSessionRepository sessionRepo) {
         this.responseRepo = responseRepo;
+        this.resultRepo = resultRepo;
+        this.sessionRepo = sessionRepo;
     }
 
+    /**
+     * Grades the session from its responses. Does not persist anything; completed
+     * sessions should be read through {@link #getResult(UUID)} instead, and live ones
+     * through {@link #runningResult(ExamSession)}.
+     */
     @Transactional(readOnly = true)
     public ExamResult calculateResult(UUID sessionId) {
 
-        List<StudentResponse> responses = responseRepo.findBySessionId(sessionId);
+        // One GROUP BY over responses joined with questions, whatever the number of subjects
+        Map<Subject, SubjectScore> scores = new EnumMap<>(Subject.class);
+        for (StudentResponseRepository.SubjectScoreView row : responseRepo.scoreBySubject(sessionId)) {
+            scores.put(row.getSubject(), new SubjectScore((int) row.getCorrect(), (int) row.getTotal()));
+        }
+
+        return new ExamResult(scores, LocalDateTime.now());
+    }
+
+    /**
+     * Result as tracked by the session's running counters, without reading any responses.
+     */
+    public ExamResult runningResult(ExamSession session) {
+        return new ExamResult(session.getSubjectCounters(), LocalDateTime.now());
+    }
 
-        int mathTotal = 0, mathCorrect = 0;
-        int englishTotal = 0, englishCorrect = 0;
+    /**
+     * Stores the session's result from its running counters. Recording again keeps the
+     * original completion time and bumps the revision.
+     */
+    @Transactional
+    public ExamResult recordResult(ExamSession session) {
+        return store(session, runningResult(session));
+    }
+
+    /**
+     * Re-grades the session from its responses, resets its running counters to match and
+     * stores the outcome.
+     */
+    @Transactional
+    public ExamResult regradeResult(ExamSession session) {
+        ExamResult graded = calculateResult(session.getId());
+        session.resetCounters(graded);
+        return store(session, graded);
+    }
 
-        for (StudentResponse response : responses) {
-            if (response.getQuestion() == null) continue;
+    /**
+     * Compares the session's running counters with a full re-grade of its responses.
+     * With {@code repair} set, counters that disagree are reset to the re-graded values.
+     */
+    @Transactional
+    public CounterCheckDto checkCounters(UUID sessionId, boolean repair) {
+        ExamSession session = sessionRepo.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new NotFoundException("Session not found"));
 
-            boolean isCorrect = response.getChosenIndex() != null &&
-                    response.getChosenIndex().equals(response.getQuestion().getCorrectIndex());
+        ExamResult running = runningResult(session);
+        ExamResult graded = calculateResult(sessionId);
+        // A subject counted down to 0 of 0 matches one without any responses
+        boolean consistent = EnumSet.allOf(Subject.class).stream()
+                .allMatch(subject -> running.score(subject).equals(graded.score(subject)));
 
-            if (response.getQuestion().getSubject() == Subject.MATH) {
-                mathTotal++;
-                if (isCorrect) mathCorrect++;
-            } else if (response.getQuestion().getSubject() == Subject.ENGLISH) {
-                englishTotal++;
-                if (isCorrect) englishCorrect++;
-            }
+        boolean repaired = false;
+        if (!consistent && repair) {
+            session.resetCounters(graded);
+            repaired = true;
         }
+        return new CounterCheckDto(sessionId, consistent, repaired, running, graded);
+    }
 
-        double mathPercentage = mathTotal == 0 ? 0 : ((double) mathCorrect / mathTotal) * 100;
-        double englishPercentage = englishTotal == 0 ? 0 : ((double) englishCorrect / englishTotal) * 100;
+    private ExamResult store(ExamSession session, ExamResult graded) {
+        SessionResult stored = resultRepo.findById(session.getId()).orElse(null);
+        if (stored == null) {
+            stored = new SessionResult();
+            stored.setSession(session);
+            stored.setCompletedAt(graded.getCompletedAt());
+        } else {
+            stored.setRevision(stored.getRevision() + 1);
+        }
+        stored.apply(graded);
 
-        return new ExamResult(
-                mathCorrect, mathTotal, mathPercentage,
-                englishCorrect, englishTotal, englishPercentage,
-                LocalDateTime.now()
-        );
+        return resultRepo.save(stored).toExamResult();
+    }
+
+    /**
+     * Stored result of a finished session, or a live grade for a session that has not
+     * been finished yet.
+     */
+    @Transactional(readOnly = true)
+    public ExamResult getResult(UUID sessionId) {
+        return resultRepo.findById(sessionId)
+                .map(SessionResult::toExamResult)
+                .orElseGet(() -> calculateResult(sessionId));
+    }
+
+    /**
+     * Re-grades every completed session of the exam, e.g. after its answer key changed.
+     *
+     * @return number of sessions recomputed
+     */
+    @Transactional
+    public int recomputeResults(Long examId) {
+        List<UUID> sessionIds = sessionRepo.findIdsByExamIdAndStatus(examId, SessionStatus.COMPLETED);
+        for (UUID sessionId : sessionIds) {
+            regradeResult(sessionRepo.getReferenceById(sessionId));
+        }
+        return sessionIds.size();
+    }
+
+    /**
+     * Stores results for completed sessions that predate the results table.
+     *
+     * @return number of sessions backfilled
+     */
+    @Transactional
+    public int backfillMissingResults() {
+        List<UUID> sessionIds = resultRepo.findSessionIdsWithoutResult(SessionStatus.COMPLETED);
+        for (UUID sessionId : sessionIds) {
+            regradeResult(sessionRepo.getReferenceById(sessionId));
+        }
+        return sessionIds.size();
     }
-}
\ No newline at end of file
+}
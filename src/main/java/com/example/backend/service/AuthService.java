@@ -7,7 +7,6 @@ import com.example.backend.exception.BadRequestException;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,14 +14,14 @@ import org.springframework.stereotype.Service;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingPool passwordHashingPool;
     private final JwtTokenProvider jwtTokenProvider;
 
     public AuthResponse login(LoginRequest request) {
         AppUser user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new BadRequestException("Invalid username or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingPool.matches(request.getPassword(), user.getPasswordHash())) {
             throw new BadRequestException("Invalid username or password");
         }
 
@@ -0,0 +1,152 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.SessionStatus;
+import com.example.backend.dto.DashboardStatsDto;
+import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.SessionResultRepository;
+import com.example.backend.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters behind the manager dashboard.
+ *
+ * Session and registration lifecycle calls move the counters after their transaction
+ * commits, so reads never touch the database. {@link #reconcile()} resets every counter
+ * from COUNT queries, picking up changes made outside those calls (bulk expiry, seeding)
+ * and counters that drifted.
+ */
+@Component
+@Slf4j
+public class DashboardStatsCache {
+
+    private final StudentRepository studentRepository;
+    private final ExamSessionRepository examSessionRepository;
+    private final SessionResultRepository sessionResultRepository;
+
+    private final AtomicLong totalStudents = new AtomicLong();
+    private final AtomicLong inProgress = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final Map<Long, LongAdder> completedByExam = new ConcurrentHashMap<>();
+    private final AtomicReference<Today> today = new AtomicReference<>(new Today(LocalDate.now()));
+
+    public DashboardStatsCache(StudentRepository studentRepository,
+                               ExamSessionRepository examSessionRepository,
+                               SessionResultRepository sessionResultRepository) {
+        this.studentRepository = studentRepository;
+        this.examSessionRepository = examSessionRepository;
+        this.sessionResultRepository = sessionResultRepository;
+    }
+
+    public DashboardStatsDto get() {
+        Today current = today();
+        Map<Long, Long> byExam = new HashMap<>();
+        completedByExam.forEach((examId, count) -> byExam.put(examId, count.sum()));
+        return new DashboardStatsDto(
+                totalStudents.get(),
+                current.studentsRegistered.get(),
+                completed.get(),
+                inProgress.get(),
+                current.examsCompleted.get(),
+                byExam);
+    }
+
+    public void studentRegistered() {
+        afterCommit(() -> {
+            totalStudents.incrementAndGet();
+            today().studentsRegistered.incrementAndGet();
+        });
+    }
+
+    public void sessionStarted() {
+        afterCommit(inProgress::incrementAndGet);
+    }
+
+    public void sessionSubmitted() {
+        afterCommit(inProgress::decrementAndGet);
+    }
+
+    public void sessionCompleted(Long examId) {
+        afterCommit(() -> {
+            completed.incrementAndGet();
+            today().examsCompleted.incrementAndGet();
+            completedByExam.computeIfAbsent(examId, id -> new LongAdder()).increment();
+        });
+    }
+
+    /**
+     * Replaces every counter with a fresh COUNT from the database.
+     */
+    public void reconcile() {
+        LocalDate day = LocalDate.now();
+        Today fresh = new Today(day);
+        fresh.studentsRegistered.set(studentRepository.countByCreatedAtAfter(day.atStartOfDay()));
+        fresh.examsCompleted.set(sessionResultRepository.countByCompletedAtAfter(day.atStartOfDay()));
+
+        long students = studentRepository.count();
+        long running = examSessionRepository.countByStatus(SessionStatus.STARTED);
+        long done = examSessionRepository.countByStatus(SessionStatus.COMPLETED);
+
+        Map<Long, LongAdder> byExam = new HashMap<>();
+        for (ExamSessionRepository.ExamCountRow row : examSessionRepository.countPerExamByStatus(SessionStatus.COMPLETED)) {
+            LongAdder adder = new LongAdder();
+            adder.add(row.getSessions());
+            byExam.put(row.getExamId(), adder);
+        }
+
+        if (students != totalStudents.get() || running != inProgress.get() || done != completed.get()) {
+            log.info("Dashboard stats reconciled: students {} -> {}, in progress {} -> {}, completed {} -> {}",
+                    totalStudents.get(), students, inProgress.get(), running, completed.get(), done);
+        }
+        totalStudents.set(students);
+        inProgress.set(running);
+        completed.set(done);
+        completedByExam.keySet().retainAll(byExam.keySet());
+        completedByExam.putAll(byExam);
+        today.set(fresh);
+    }
+
+    private Today today() {
+        Today current = today.get();
+        LocalDate now = LocalDate.now();
+        if (current.day.equals(now)) {
+            return current;
+        }
+        // First use after midnight starts the day at zero
+        today.compareAndSet(current, new Today(now));
+        return today.get();
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static final class Today {
+        final LocalDate day;
+        final AtomicLong studentsRegistered = new AtomicLong();
+        final AtomicLong examsCompleted = new AtomicLong();
+
+        Today(LocalDate day) {
+            this.day = day;
+        }
+    }
+}
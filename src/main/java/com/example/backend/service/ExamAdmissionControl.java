@@ -0,0 +1,247 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ExamSessionResponse;
+import com.example.backend.dto.WaitingRoomDto;
+import com.example.backend.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control in front of {@link ExamService#startExamSession}.
+ *
+ * Starts are admitted at a steady rate from a token bucket, and at most a fixed number
+ * run at once, which keeps them below the size of the database connection pool. A
+ * student who cannot be admitted gets a ticket in a FIFO waiting room and is told their
+ * position and expected wait; repeating the start request with the same student id
+ * keeps the ticket. While anyone is waiting, new arrivals queue behind them even if a
+ * token is free. Tickets that are not polled for the ticket TTL are dropped.
+ */
+@Component
+public class ExamAdmissionControl {
+
+    /**
+     * Either the started session or the student's place in the waiting room.
+     */
+    public record Admission(ExamSessionResponse session, WaitingRoomDto waitingRoom) {
+        public boolean admitted() {
+            return session != null;
+        }
+    }
+
+    private static final int MAX_RETRY_AFTER_SECONDS = 5;
+
+    private final ExamService examService;
+    private final LongSupplier nanoTime;
+    private final double ratePerNano;
+    private final double ratePerSecond;
+    private final double burst;
+    private final long ticketTtlNanos;
+    private final Semaphore running;
+
+    // A lock rather than synchronized: under virtual threads a contended monitor pins the
+    // carrier thread on Java 21, and every exam start goes through here
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private double tokens;
+    private long lastRefill;
+    private long nextSeq;
+    private final Map<UUID, Ticket> tickets = new HashMap<>();
+    private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+    private final ArrayDeque<Ticket> released = new ArrayDeque<>();
+
+    private final Counter admittedDirectly;
+    private final Counter admittedFromQueue;
+    private final Counter queued;
+    private final Counter abandoned;
+    private final Counter saturated;
+
+    @Autowired
+    public ExamAdmissionControl(ExamService examService,
+                                MeterRegistry meterRegistry,
+                                @Value("${exam.admission.rate-per-second:20}") double ratePerSecond,
+                                @Value("${exam.admission.burst:20}") int burst,
+                                @Value("${exam.admission.max-concurrent:6}") int maxConcurrent,
+                                @Value("${exam.admission.ticket-ttl-seconds:30}") int ticketTtlSeconds) {
+        this(examService, meterRegistry, System::nanoTime, ratePerSecond, burst, maxConcurrent, ticketTtlSeconds);
+    }
+
+    ExamAdmissionControl(ExamService examService, MeterRegistry meterRegistry, LongSupplier nanoTime,
+                         double ratePerSecond, int burst, int maxConcurrent, int ticketTtlSeconds) {
+        this.examService = examService;
+        this.nanoTime = nanoTime;
+        this.ratePerSecond = ratePerSecond;
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.burst = Math.max(burst, 1);
+        this.ticketTtlNanos = TimeUnit.SECONDS.toNanos(ticketTtlSeconds);
+        this.running = new Semaphore(maxConcurrent);
+        this.tokens = this.burst;
+        this.lastRefill = nanoTime.getAsLong();
+
+        this.admittedDirectly = meterRegistry.counter("exam.admission.requests", "result", "admitted");
+        this.admittedFromQueue = meterRegistry.counter("exam.admission.requests", "result", "admitted-from-queue");
+        this.queued = meterRegistry.counter("exam.admission.requests", "result", "queued");
+        this.abandoned = meterRegistry.counter("exam.admission.requests", "result", "abandoned");
+        this.saturated = meterRegistry.counter("exam.admission.requests", "result", "saturated");
+        meterRegistry.gauge("exam.admission.waiting", this, ExamAdmissionControl::waitingCount);
+    }
+
+    /**
+     * Starts the student's session if they are admitted now, otherwise returns their
+     * place in the waiting room.
+     */
+    public Admission start(UUID studentId, Long examId) {
+        if (studentId == null || examId == null) {
+            throw new BadRequestException("Student ID and exam ID are required");
+        }
+        WaitingRoomDto waitingRoom = enter(studentId);
+        if (waitingRoom != null) {
+            return new Admission(null, waitingRoom);
+        }
+        // Admitted by rate; when the concurrency cap is reached the student goes back to the
+        // head of the waiting room straight away instead of holding a request thread
+        if (!running.tryAcquire()) {
+            return new Admission(null, requeue(studentId));
+        }
+        try {
+            return new Admission(examService.startExamSession(studentId, examId), null);
+        } finally {
+            running.release();
+        }
+    }
+
+    public int waitingCount() {
+        lock.lock();
+        try {
+            return tickets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns null when the student may start now, otherwise their waiting-room status.
+     */
+    private WaitingRoomDto enter(UUID studentId) {
+        lock.lock();
+        try {
+            return enterLocked(studentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WaitingRoomDto enterLocked(UUID studentId) {
+        long now = nanoTime.getAsLong();
+        Ticket ticket = tickets.get(studentId);
+        if (ticket != null) {
+            ticket.lastSeen = now;
+        }
+        refill(now);
+        expireReleased(now);
+
+        ticket = tickets.get(studentId);
+        if (ticket == null) {
+            if (waiting.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                admittedDirectly.increment();
+                return null;
+            }
+            ticket = new Ticket(studentId, ++nextSeq, now);
+            tickets.put(studentId, ticket);
+            waiting.addLast(ticket);
+            queued.increment();
+        }
+
+        if (ticket.released) {
+            tickets.remove(studentId);
+            admittedFromQueue.increment();
+            return null;
+        }
+        return status(ticket);
+    }
+
+    /**
+     * Puts an admitted student back at the head of the waiting room, returning the
+     * token they were admitted with so the retry can be released at once.
+     */
+    private WaitingRoomDto requeue(UUID studentId) {
+        lock.lock();
+        try {
+            tokens = Math.min(burst, tokens + 1);
+            saturated.increment();
+            Ticket ticket = new Ticket(studentId, waiting.isEmpty() ? nextSeq + 1 : waiting.peekFirst().seq - 1,
+                    nanoTime.getAsLong());
+            nextSeq = Math.max(nextSeq, ticket.seq);
+            tickets.put(studentId, ticket);
+            waiting.addFirst(ticket);
+            return status(ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WaitingRoomDto status(Ticket ticket) {
+        // Abandoned tickets ahead make this an upper bound
+        long position = waiting.isEmpty() ? 1 : ticket.seq - waiting.peekFirst().seq + 1;
+        long etaSeconds = (long) Math.ceil(Math.max(position - tokens, 0) / ratePerSecond);
+        int retryAfter = (int) Math.max(1, Math.min(etaSeconds, MAX_RETRY_AFTER_SECONDS));
+        return new WaitingRoomDto(position, etaSeconds, retryAfter);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+        // Tokens go to the head of the waiting room first
+        while (tokens >= 1 && !waiting.isEmpty()) {
+            Ticket head = waiting.pollFirst();
+            if (tickets.get(head.studentId) != head) {
+                continue;
+            }
+            if (now - head.lastSeen > ticketTtlNanos) {
+                tickets.remove(head.studentId);
+                abandoned.increment();
+                continue;
+            }
+            head.released = true;
+            head.releasedAt = now;
+            released.addLast(head);
+            tokens -= 1;
+        }
+    }
+
+    private void expireReleased(long now) {
+        while (!released.isEmpty() && now - released.peekFirst().releasedAt > ticketTtlNanos) {
+            Ticket stale = released.pollFirst();
+            if (tickets.remove(stale.studentId, stale)) {
+                abandoned.increment();
+            }
+        }
+    }
+
+    private static final class Ticket {
+        final UUID studentId;
+        final long seq;
+        long lastSeen;
+        boolean released;
+        long releasedAt;
+
+        Ticket(UUID studentId, long seq, long now) {
+            this.studentId = studentId;
+            this.seq = seq;
+            this.lastSeen = now;
+        }
+    }
+}
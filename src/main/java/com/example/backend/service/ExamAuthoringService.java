@@ -2,16 +2,25 @@ package com.example.backend.service;
 
 import com.example.backend.domain.Exam;
 import com.example.backend.domain.Question;
+import com.example.backend.domain.SessionStatus;
+import com.example.backend.dto.CounterCheckDto;
 import com.example.backend.dto.CreateExamDto;
 import com.example.backend.dto.QuestionCreationDto;
+import com.example.backend.dto.SessionProgressDto;
+import com.example.backend.dto.SubjectScore;
+import com.example.backend.dto.TeacherStudentResultDto;
 import com.example.backend.exception.NotFoundException;
 import com.example.backend.repository.ExamRepository;
 import com.example.backend.repository.ExamSessionRepository;
 import com.example.backend.repository.QuestionRepository;
+import com.example.backend.repository.SessionResultRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -23,25 +32,63 @@ public class ExamAuthoringService {
     private final ExamRepository examRepository;
     private final QuestionRepository questionRepository;
     private final ExamSessionRepository examSessionRepository;
+    private final SessionResultRepository sessionResultRepository;
     private final AssessmentService assessmentService;
+    private final ExamContentCache examContentCache;
 
+    /**
+     * Graded sessions (one page, or all when unpaged), read with a single projection query over the stored
+     * results. All filters are optional.
+     */
     @Transactional(readOnly = true)
-    public List<com.example.backend.dto.TeacherStudentResultDto> getAllStudentResults() {
-        return examSessionRepository.findAll().stream()
-                .filter(session -> session.getStatus() == com.example.backend.domain.SessionStatus.COMPLETED)
-                .map(session -> {
-                    com.example.backend.dto.ExamResult result = assessmentService.calculateResult(session.getId());
-                    String studentName = session.getStudent().getFirstname() + " " + session.getStudent().getLastname();
-                    return new com.example.backend.dto.TeacherStudentResultDto(
-                            session.getId(),
-                            studentName,
-                            session.getExam().getTitle(),
-                            result.getTotalCorrect(),
-                            result.getTotalQuestions(),
-                            result.getTotalPercentage(),
-                            session.getSubmitTime() != null ? session.getSubmitTime() : java.time.LocalDateTime.now());
+    public Page<TeacherStudentResultDto> getStudentResults(
+            Long examId, LocalDateTime from, LocalDateTime to,
+            Double minPercentage, Double maxPercentage, Pageable pageable) {
+        return sessionResultRepository.findRows(examId, from, to, minPercentage, maxPercentage, pageable)
+                .map(row -> new TeacherStudentResultDto(
+                        row.getSessionId(),
+                        row.getFirstName() + " " + row.getLastName(),
+                        row.getExamTitle(),
+                        row.getTotalCorrect(),
+                        row.getTotalQuestions(),
+                        row.getTotalPercentage(),
+                        row.getSubmitTime() != null ? row.getSubmitTime() : row.getCompletedAt()));
+    }
+
+    /**
+     * Re-grades all completed sessions of the exam against its current answer key.
+     */
+    @Transactional
+    public int recomputeResults(Long examId) {
+        if (!examRepository.existsById(examId)) {
+            throw new NotFoundException("Exam not found: " + examId);
+        }
+        return assessmentService.recomputeResults(examId);
+    }
+
+    /**
+     * Live progress of the exam's running sessions, read from their counters.
+     */
+    @Transactional(readOnly = true)
+    public List<SessionProgressDto> getLiveProgress(Long examId) {
+        int totalCount = examContentCache.get(examId).questionCount();
+        return examSessionRepository.findProgressByExamIdAndStatus(examId, SessionStatus.STARTED).stream()
+                .map(row -> {
+                    SubjectScore counted = SubjectScore.sum(row.getSubjectCounters().values());
+                    return new SessionProgressDto(
+                            row.getSessionId(),
+                            row.getFirstName() + " " + row.getLastName(),
+                            row.getStartTime(),
+                            counted.total(),
+                            counted.correct(),
+                            totalCount);
                 })
-                .collect(java.util.stream.Collectors.toList());
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public CounterCheckDto checkSessionCounters(UUID sessionId, boolean repair) {
+        return assessmentService.checkCounters(sessionId, repair);
     }
 
     @Transactional(readOnly = true)
@@ -54,7 +101,9 @@ public class ExamAuthoringService {
         Exam exam = new Exam();
         exam.setTitle(dto.getTitle());
         exam.setTimeLimitSeconds(dto.getTimeLimitSeconds());
-        return examRepository.save(exam);
+        Exam saved = examRepository.save(exam);
+        examContentCache.invalidate(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -62,14 +111,25 @@ public class ExamAuthoringService {
         Exam exam = examRepository.findById(examId)
                 .orElseThrow(() -> new NotFoundException("Exam not found: " + examId));
 
-        Question question = new Question();
-        question.setExam(exam);
-        question.setSubject(dto.getSubject());
-        question.setContent(dto.getContent());
-        question.setOptions(dto.getOptions());
-        question.setCorrectIndex(dto.getCorrectIndex());
+        Question saved = questionRepository.save(newQuestion(exam, dto));
+        examContentCache.invalidate(examId);
+        return saved;
+    }
+
+    /**
+     * Adds a whole question bank to the exam in one transaction. Question ids come from
+     * a pooled sequence, so the inserts are sent as JDBC batches rather than one round
+     * trip per question.
+     */
+    @Transactional
+    public int importQuestions(Long examId, List<QuestionCreationDto> dtos) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new NotFoundException("Exam not found: " + examId));
 
-        return questionRepository.save(question);
+        List<Question> questions = dtos.stream().map(dto -> newQuestion(exam, dto)).toList();
+        questionRepository.saveAll(questions);
+        examContentCache.invalidate(examId);
+        return questions.size();
     }
 
     @Transactional
@@ -82,14 +142,26 @@ public class ExamAuthoringService {
         question.setOptions(dto.getOptions());
         question.setCorrectIndex(dto.getCorrectIndex());
 
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        examContentCache.invalidate(question.getExam().getId());
+        return saved;
     }
 
     @Transactional
     public void deleteQuestion(Long questionId) {
-        if (!questionRepository.existsById(questionId)) {
-            throw new NotFoundException("Question not found: " + questionId);
-        }
-        questionRepository.deleteById(questionId);
+        Question question = questionRepository.findById(questionId)
+                .orElseThrow(() -> new NotFoundException("Question not found: " + questionId));
+        questionRepository.delete(question);
+        examContentCache.invalidate(question.getExam().getId());
+    }
+
+    private static Question newQuestion(Exam exam, QuestionCreationDto dto) {
+        Question question = new Question();
+        question.setExam(exam);
+        question.setSubject(dto.getSubject());
+        question.setContent(dto.getContent());
+        question.setOptions(dto.getOptions());
+        question.setCorrectIndex(dto.getCorrectIndex());
+        return question;
     }
 }
@@ -0,0 +1,247 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.Exam;
+import com.example.backend.domain.Question;
+import com.example.backend.exception.NotFoundException;
+import com.example.backend.repository.ExamRepository;
+import com.example.backend.repository.QuestionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Per-exam cache of immutable {@link ExamSnapshot}s.
+ *
+ * Exam content does not change while a cohort is sitting it, so the question list and
+ * answer key are loaded once and shared by every session. Authoring writes call
+ * {@link #invalidate(Long)}, which drops the exam's version after commit; a load that
+ * raced with an invalidation is discarded instead of being cached. Concurrent misses on
+ * the same exam share one load.
+ *
+ * The cache is bounded both by number of exams and by total number of questions held,
+ * evicting the least recently used exam first.
+ */
+@Component
+@Slf4j
+public class ExamContentCache {
+
+    private final ExamRepository examRepository;
+    private final QuestionRepository questionRepository;
+    private final int maxExams;
+    private final int maxQuestions;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Only exams that are cached or loading have a version
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<ExamSnapshot>> loads = new ConcurrentHashMap<>();
+    private final AtomicLong versionClock = new AtomicLong();
+    private final AtomicLong heldQuestions = new AtomicLong();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final List<Consumer<Long>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    public ExamContentCache(ExamRepository examRepository,
+                            QuestionRepository questionRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${exam.content-cache.max-exams:32}") int maxExams,
+                            @Value("${exam.content-cache.max-questions:20000}") int maxQuestions) {
+        this.examRepository = examRepository;
+        this.questionRepository = questionRepository;
+        this.maxExams = maxExams;
+        this.maxQuestions = maxQuestions;
+
+        this.hits = meterRegistry.counter("exam.content.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("exam.content.cache.requests", "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("exam.content.cache.evictions", "cause", "size");
+        this.invalidations = meterRegistry.counter("exam.content.cache.evictions", "cause", "invalidation");
+        meterRegistry.gauge("exam.content.cache.exams", entries, Map::size);
+        meterRegistry.gauge("exam.content.cache.questions", heldQuestions);
+    }
+
+    /**
+     * Returns the current snapshot of the exam, loading it on a miss. A miss while the
+     * exam is already loading waits for that load instead of querying again.
+     */
+    public ExamSnapshot get(Long examId) {
+        Entry entry = entries.get(examId);
+        if (entry != null) {
+            hits.increment();
+            entry.lastAccess = accessClock.incrementAndGet();
+            return entry.snapshot;
+        }
+        misses.increment();
+
+        CompletableFuture<ExamSnapshot> loading = new CompletableFuture<>();
+        CompletableFuture<ExamSnapshot> running = loads.putIfAbsent(examId, loading);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // A load may have finished between the lookup above and claiming this one
+            Entry loaded = entries.get(examId);
+            ExamSnapshot snapshot = loaded != null ? loaded.snapshot : load(examId);
+            loading.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(examId, loading);
+        }
+    }
+
+    /**
+     * Drops the cached snapshot of the exam. Inside a transaction this happens after
+     * commit so concurrent readers cannot re-cache the pre-commit content.
+     */
+    public void invalidate(Long examId) {
+        if (examId == null) {
+            return;
+        }
+        // Evict now as well, so a load started during the transaction is not kept
+        evict(examId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(examId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Registers a callback invoked with the exam id whenever a snapshot leaves the cache,
+     * for state derived from snapshots that must not outlive them.
+     */
+    public void addEvictionListener(Consumer<Long> listener) {
+        evictionListeners.add(listener);
+    }
+
+    private ExamSnapshot load(Long examId) {
+        Version version = versions.computeIfAbsent(examId, id -> new Version(versionClock.incrementAndGet()));
+        try {
+            Exam exam = examRepository.findById(examId)
+                    .orElseThrow(() -> new NotFoundException("Exam not found: " + examId));
+            List<Question> questions = questionRepository.findByExamIdOrderById(examId);
+            ExamSnapshot snapshot = ExamSnapshot.of(exam, questions, version.number);
+
+            synchronized (version) {
+                // An invalidation ran while loading: serve this copy once, but don't keep it
+                if (versions.get(examId) == version) {
+                    Entry previous = entries.put(examId, new Entry(snapshot, version, accessClock.incrementAndGet()));
+                    heldQuestions.addAndGet(snapshot.questionCount()
+                            - (previous == null ? 0 : previous.snapshot.questionCount()));
+                }
+            }
+            enforceBounds();
+            return snapshot;
+        } catch (RuntimeException | Error e) {
+            if (!entries.containsKey(examId)) {
+                versions.remove(examId, version);
+            }
+            throw e;
+        }
+    }
+
+    private void evict(Long examId) {
+        // Waiters already on the running load still get its copy; later misses load afresh
+        loads.remove(examId);
+        Version version = versions.remove(examId);
+        if (version == null) {
+            removeInvalidated(examId);
+        } else {
+            synchronized (version) {
+                removeInvalidated(examId);
+            }
+        }
+        evictionListeners.forEach(listener -> listener.accept(examId));
+    }
+
+    private void removeInvalidated(Long examId) {
+        Entry removed = entries.remove(examId);
+        if (removed != null) {
+            heldQuestions.addAndGet(-removed.snapshot.questionCount());
+            invalidations.increment();
+        }
+    }
+
+    private void enforceBounds() {
+        while (entries.size() > maxExams || (heldQuestions.get() > maxQuestions && entries.size() > 1)) {
+            Map.Entry<Long, Entry> eldest = entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                    .orElse(null);
+            if (eldest == null) {
+                return;
+            }
+            Long examId = eldest.getKey();
+            Entry entry = eldest.getValue();
+            boolean removed;
+            synchronized (entry.version) {
+                removed = entries.remove(examId, entry);
+                if (removed) {
+                    versions.remove(examId, entry.version);
+                }
+            }
+            if (removed) {
+                heldQuestions.addAndGet(-entry.snapshot.questionCount());
+                sizeEvictions.increment();
+                evictionListeners.forEach(listener -> listener.accept(examId));
+                log.debug("Evicted exam {} from content cache", examId);
+            }
+        }
+    }
+
+    private static ExamSnapshot await(CompletableFuture<ExamSnapshot> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Identity of one cached generation of an exam. A load may only store its snapshot
+     * while its version is still the exam's current one.
+     */
+    private static final class Version {
+        private final long number;
+
+        private Version(long number) {
+            this.number = number;
+        }
+    }
+
+    private static final class Entry {
+        private final ExamSnapshot snapshot;
+        private final Version version;
+        private volatile long lastAccess;
+
+        private Entry(ExamSnapshot snapshot, Version version, long lastAccess) {
+            this.snapshot = snapshot;
+            this.version = version;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
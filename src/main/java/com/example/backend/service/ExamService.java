@@ -1,11 +1,7 @@
 package com.example.backend.service;
 
-import com.example.backend.domain.Exam;
 import com.example.backend.domain.ExamSession;
-import com.example.backend.domain.Question;
 import com.example.backend.domain.SessionStatus;
-import com.example.backend.domain.Student;
-import com.example.backend.domain.StudentResponse;
 import com.example.backend.dto.*;
 import com.example.backend.exception.BadRequestException;
 import com.example.backend.exception.ConflictException;
@@ -19,6 +15,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -31,9 +29,13 @@ public class ExamService {
         private final StudentRepository studentRepository;
         private final ExamRepository examRepository;
         private final ExamSessionRepository examSessionRepository;
-        private final QuestionRepository questionRepository;
         private final StudentResponseRepository studentResponseRepository;
         private final AssessmentService assessmentService;
+        private final ExamContentCache examContentCache;
+        private final QuestionPagePayloadCache questionPagePayloadCache;
+        private final SessionDeadlineWheel deadlineWheel;
+        private final DashboardStatsCache dashboardStatsCache;
+        private final ReportRenderQueue reportRenderQueue;
 
         public List<StudentExamDto> getAllStudentExams() {
                 return examRepository.findAll().stream()
@@ -43,41 +45,48 @@ public class ExamService {
 
         @Transactional
         public ExamSessionResponse startExamSession(UUID studentId, Long examId) {
-
-                Student student = studentRepository.findById(studentId)
-                                .orElseThrow(() -> new NotFoundException("Student not found"));
-
                 if (examId == null) {
                         throw new BadRequestException("Exam ID is required");
                 }
 
-                // Return existing active session for this exam if present
-                List<ExamSession> activeSessions = examSessionRepository
-                                .findByStudentIdAndStatus(studentId, SessionStatus.STARTED);
-
-                // If student has ANY active session for the requested exam, return it.
-                // Or if we want to restrict to ONE active session at a time globally:
-                if (!activeSessions.isEmpty()) {
-                        ExamSession existing = activeSessions.get(0);
-                        // Verify if it matches the requested exam?
-                        // Ideally we should probably force finish or return the existing one.
-                        // For simplicity, if they have an active session, we return it.
-                        // But if they want to start a Different exam, and have one running?
-                        // Let's assume one active session at a time for now.
-                        return toResponse(existing);
+                // Retries and double-clicks end here after one read.
+                // One active session at a time: if the student has one, for any exam, return it
+                ExamSessionResponse active = findActiveSession(studentId);
+                if (active != null) {
+                        return active;
                 }
 
-                Exam exam = examRepository.findById(examId)
-                                .orElseThrow(() -> new NotFoundException("Exam not found"));
+                if (!studentRepository.existsById(studentId)) {
+                        throw new NotFoundException("Student not found");
+                }
+                ExamSnapshot exam = examContentCache.get(examId);
+
+                // Time-ordered like the ids Hibernate generates for ExamSession, so new rows
+                // land at the right-hand edge of the primary key index
+                UUID sessionId = UuidV7.next();
+                LocalDateTime startTime = LocalDateTime.now();
+                if (examSessionRepository.insertIfNoneActive(sessionId, examId, studentId, startTime) == 0) {
+                        // A concurrent request started a session first; return that one
+                        ExamSessionResponse winner = findActiveSession(studentId);
+                        if (winner == null) {
+                                throw new ConflictException("Session could not be started, please retry");
+                        }
+                        return winner;
+                }
 
-                ExamSession session = new ExamSession();
-                session.setExam(exam);
-                session.setStudent(student);
-                session.setStatus(SessionStatus.STARTED);
-                session.setStartTime(LocalDateTime.now());
+                deadlineWheel.schedule(sessionId, startTime, exam.timeLimitSeconds());
+                dashboardStatsCache.sessionStarted();
+                return new ExamSessionResponse(sessionId, exam.timeLimitSeconds(), startTime);
+        }
 
-                ExamSession saved = examSessionRepository.save(session);
-                return toResponse(saved);
+        private ExamSessionResponse findActiveSession(UUID studentId) {
+                List<ExamSessionRepository.ActiveSessionRow> active = examSessionRepository
+                                .findActiveSessions(studentId, SessionStatus.STARTED);
+                if (active.isEmpty()) {
+                        return null;
+                }
+                ExamSessionRepository.ActiveSessionRow row = active.get(0);
+                return new ExamSessionResponse(row.getSessionId(), row.getTimeLimitSeconds(), row.getStartTime());
         }
 
         public QuestionPageResponse getExamQuestionsPage(UUID sessionId, int page, int size) {
@@ -88,24 +97,21 @@ public class ExamService {
                         throw new ConflictException("Session is not active");
                 }
 
-                Exam exam = session.getExam();
+                ExamSnapshot exam = examContentCache.get(session.getExam().getId());
                 Pageable pageable = PageRequest.of(page, Math.min(size, 20));
-                Page<Question> questionPage = questionRepository.findByExamId(exam.getId(), pageable);
+                Page<ExamSnapshot.QuestionSnapshot> questionPage = exam.page(pageable);
 
                 // Fetch existing answers for this session
-                List<StudentResponse> responses = studentResponseRepository.findBySessionId(sessionId);
-                Map<Long, Integer> chosenByQuestionId = responses.stream()
-                                .collect(Collectors.toMap(
-                                                r -> r.getQuestion().getId(),
-                                                StudentResponse::getChosenIndex,
-                                                (a, b) -> a));
+                Map<Long, Integer> chosenByQuestionId = new HashMap<>();
+                studentResponseRepository.findChoicesBySessionId(sessionId)
+                                .forEach(c -> chosenByQuestionId.putIfAbsent(c.getQuestionId(), c.getChosenIndex()));
 
                 List<QuestionResponseDto> questionDtos = questionPage.getContent().stream()
                                 .map(q -> new QuestionResponseDto(
-                                                q.getId(),
-                                                q.getContent(),
-                                                q.getOptions(), // correctIndex NOT included
-                                                chosenByQuestionId.get(q.getId())))
+                                                q.id(),
+                                                q.content(),
+                                                q.options(), // correctIndex NOT included
+                                                chosenByQuestionId.get(q.id())))
                                 .toList();
 
                 return new QuestionPageResponse(
@@ -115,50 +121,147 @@ public class ExamService {
                                 questionPage.isLast());
         }
 
+        /**
+         * Pre-rendered, session-independent question page. Pair it with
+         * {@link #getSessionAnswers(UUID)} to restore the student's choices.
+         */
+        public QuestionPagePayloadCache.RenderedPage getQuestionContentPage(UUID sessionId, int page, int size) {
+                ExamSession session = examSessionRepository.findById(sessionId)
+                                .orElseThrow(() -> new NotFoundException("Session not found"));
+
+                if (session.getStatus() != SessionStatus.STARTED) {
+                        throw new ConflictException("Session is not active");
+                }
+
+                return questionPagePayloadCache.get(session.getExam().getId(), Math.max(page, 0),
+                                Math.max(1, Math.min(size, 20)));
+        }
+
+        /**
+         * The per-session overlay for pre-rendered question pages: one entry per answered question.
+         */
+        public List<AnswerDto> getSessionAnswers(UUID sessionId) {
+                if (!examSessionRepository.existsById(sessionId)) {
+                        throw new NotFoundException("Session not found");
+                }
+                return studentResponseRepository.findChoicesBySessionId(sessionId).stream()
+                                .filter(c -> c.getChosenIndex() != null)
+                                .map(c -> {
+                                        AnswerDto dto = new AnswerDto();
+                                        dto.setQuestionId(c.getQuestionId());
+                                        dto.setSelectedOptionIndex(c.getChosenIndex());
+                                        return dto;
+                                })
+                                .toList();
+        }
+
+        /**
+         * Strict autosave: every answer must reference a question of the session's exam,
+         * otherwise nothing is written.
+         */
         @Transactional
         public void saveAnswers(UUID sessionId, List<AnswerDto> answers) {
+                upsertAnswers(sessionId, answers, true);
+        }
 
-                ExamSession session = examSessionRepository.findById(sessionId)
+        /**
+         * Lenient autosave: valid answers are written, invalid ones are reported back
+         * per answer instead of failing the whole request.
+         */
+        @Transactional
+        public AnswerBatchResponse saveAnswersBatch(UUID sessionId, List<AnswerDto> answers) {
+                return upsertAnswers(sessionId, answers, false);
+        }
+
+        /**
+         * Validates the whole batch against the cached answer key and writes it with a
+         * single INSERT ... ON CONFLICT statement, so the cost no longer grows with the
+         * number of answers. The session's running counters are moved by the difference
+         * between the stored and the new answers.
+         */
+        private AnswerBatchResponse upsertAnswers(UUID sessionId, List<AnswerDto> answers, boolean strict) {
+
+                // Answered in memory; the session is submitted by the deadline scheduler
+                if (deadlineWheel.isExpired(sessionId)) {
+                        throw new ConflictException("Time limit exceeded");
+                }
+
+                ExamSession session = examSessionRepository.findByIdForUpdate(sessionId)
                                 .orElseThrow(() -> new NotFoundException("Session not found"));
 
                 if (session.getStatus() != SessionStatus.STARTED) {
                         throw new ConflictException("Session is not active");
                 }
 
-                Exam exam = session.getExam();
+                if (answers.isEmpty()) {
+                        return new AnswerBatchResponse(0, 0, List.of());
+                }
 
-                for (AnswerDto dto : answers) {
-                        Question question = questionRepository.findById(dto.getQuestionId())
-                                        .orElseThrow(() -> new BadRequestException(
-                                                        "Invalid question id: " + dto.getQuestionId()));
+                ExamSnapshot exam = examContentCache.get(session.getExam().getId());
 
-                        if (!question.getExam().getId().equals(exam.getId())) {
-                                throw new BadRequestException(
-                                                "Question does not belong to this exam: " + dto.getQuestionId());
+                // The last answer for a question wins; ON CONFLICT cannot touch a row twice
+                Map<Long, Integer> lastIndexByQuestion = new HashMap<>();
+                for (int i = 0; i < answers.size(); i++) {
+                        lastIndexByQuestion.put(answers.get(i).getQuestionId(), i);
+                }
+
+                List<AnswerOutcome> outcomes = new ArrayList<>(answers.size());
+                List<AnswerDto> accepted = new ArrayList<>(lastIndexByQuestion.size());
+                for (int i = 0; i < answers.size(); i++) {
+                        AnswerDto dto = answers.get(i);
+                        if (exam.question(dto.getQuestionId()) == null) {
+                                if (strict) {
+                                        throw new BadRequestException(
+                                                        "Question does not belong to this exam: " + dto.getQuestionId());
+                                }
+                                outcomes.add(new AnswerOutcome(dto.getQuestionId(), AnswerOutcome.Status.REJECTED,
+                                                "Question does not belong to this exam"));
+                        } else if (lastIndexByQuestion.get(dto.getQuestionId()) != i) {
+                                outcomes.add(new AnswerOutcome(dto.getQuestionId(), AnswerOutcome.Status.SUPERSEDED,
+                                                "Overridden by a later answer in the same batch"));
+                        } else {
+                                outcomes.add(new AnswerOutcome(dto.getQuestionId(), AnswerOutcome.Status.SAVED, null));
+                                accepted.add(dto);
                         }
+                }
 
-                        StudentResponse response = studentResponseRepository
-                                        .findBySessionIdAndQuestionId(sessionId, dto.getQuestionId())
-                                        .orElseGet(() -> {
-                                                StudentResponse sr = new StudentResponse();
-                                                sr.setSession(session);
-                                                sr.setQuestion(question);
-                                                return sr;
-                                        });
-
-                        response.setChosenIndex(dto.getSelectedOptionIndex());
-                        response.setIsCorrect(
-                                        question.getCorrectIndex() != null &&
-                                                        question.getCorrectIndex()
-                                                                        .equals(dto.getSelectedOptionIndex()));
-                        response.setSubmittedAt(LocalDateTime.now());
-                        studentResponseRepository.save(response);
+                if (!accepted.isEmpty()) {
+                        int n = accepted.size();
+                        Long[] ids = new Long[n];
+                        Integer[] chosen = new Integer[n];
+                        Boolean[] correct = new Boolean[n];
+                        for (int i = 0; i < n; i++) {
+                                AnswerDto dto = accepted.get(i);
+                                ids[i] = dto.getQuestionId();
+                                chosen[i] = dto.getSelectedOptionIndex();
+                                correct[i] = exam.question(dto.getQuestionId()).isCorrect(dto.getSelectedOptionIndex());
+                        }
+
+                        Map<Long, StudentResponseRepository.StoredAnswerView> stored = new HashMap<>();
+                        studentResponseRepository.findStoredAnswers(sessionId, List.of(ids))
+                                        .forEach(a -> stored.put(a.getQuestionId(), a));
+                        for (int i = 0; i < n; i++) {
+                                StudentResponseRepository.StoredAnswerView previous = stored.get(ids[i]);
+                                boolean wasAnswered = previous != null && previous.getChosenIndex() != null;
+                                boolean wasCorrect = previous != null && Boolean.TRUE.equals(previous.getCorrect());
+                                session.applyAnswerDelta(exam.question(ids[i]).subject(),
+                                                (chosen[i] != null ? 1 : 0) - (wasAnswered ? 1 : 0),
+                                                (correct[i] ? 1 : 0) - (wasCorrect ? 1 : 0));
+                        }
+
+                        studentResponseRepository.upsertAnswers(sessionId, ids, chosen, correct, LocalDateTime.now());
                 }
+
+                int rejected = (int) outcomes.stream()
+                                .filter(o -> o.status() == AnswerOutcome.Status.REJECTED)
+                                .count();
+                return new AnswerBatchResponse(accepted.size(), rejected, outcomes);
         }
 
         @Transactional
         public ExamSubmitResponse submitExam(UUID sessionId) {
-                ExamSession session = examSessionRepository.findById(sessionId)
+                // Locked like answer saves, so this save cannot overwrite their counter updates
+                ExamSession session = examSessionRepository.findByIdForUpdate(sessionId)
                                 .orElseThrow(() -> new NotFoundException("Session not found"));
 
                 if (session.getStatus() != SessionStatus.STARTED) {
@@ -168,17 +271,38 @@ public class ExamService {
                 session.setStatus(SessionStatus.SUBMITTED);
                 session.setSubmitTime(LocalDateTime.now());
                 examSessionRepository.save(session); // FIX: was missing
+                deadlineWheel.cancel(sessionId);
+                dashboardStatsCache.sessionSubmitted();
 
-                long answeredCount = studentResponseRepository.countAnsweredBySessionId(sessionId);
-                int totalCount = (int) questionRepository.countByExamId(session.getExam().getId());
+                long answeredCount = session.getAnsweredCount();
+                int totalCount = examContentCache.get(session.getExam().getId()).questionCount();
                 int unansweredCount = totalCount - (int) answeredCount;
 
                 return new ExamSubmitResponse(answeredCount, totalCount, unansweredCount);
         }
 
+        /**
+         * Submits a session whose time limit ran out. Returns false when the session is
+         * gone or no longer running.
+         */
+        @Transactional
+        public boolean autoSubmit(UUID sessionId) {
+                ExamSession session = examSessionRepository.findByIdForUpdate(sessionId).orElse(null);
+                deadlineWheel.cancel(sessionId);
+                if (session == null || session.getStatus() != SessionStatus.STARTED) {
+                        return false;
+                }
+
+                session.setStatus(SessionStatus.SUBMITTED);
+                session.setSubmitTime(LocalDateTime.now());
+                dashboardStatsCache.sessionSubmitted();
+                return true;
+        }
+
         @Transactional
         public ExamFinishResponse finishExam(UUID sessionId) {
-                ExamSession session = examSessionRepository.findById(sessionId)
+                // Locked like answer saves, so this save cannot overwrite their counter updates
+                ExamSession session = examSessionRepository.findByIdForUpdate(sessionId)
                                 .orElseThrow(() -> new NotFoundException("Session not found"));
 
                 if (session.getStatus() != SessionStatus.SUBMITTED) {
@@ -188,24 +312,21 @@ public class ExamService {
                 session.setStatus(SessionStatus.COMPLETED);
                 examSessionRepository.save(session);
 
-                // Trigger grading (idempotent – can be called again on PDF download)
-                assessmentService.calculateResult(sessionId);
+                // Grade once; every later read uses the stored result
+                assessmentService.recordResult(session);
+                dashboardStatsCache.sessionCompleted(session.getExam().getId());
+                // Render the report now, before the student asks for it
+                reportRenderQueue.enqueue(session.getStudent().getId(), sessionId);
 
                 String downloadUrl = "/api/v1/reports/" + sessionId + "/download";
                 return new ExamFinishResponse(downloadUrl);
         }
 
         public ExamResult getExamResult(UUID sessionId) {
-                ExamSession session = examSessionRepository.findById(sessionId)
-                                .orElseThrow(() -> new NotFoundException("Session not found"));
-
-                return assessmentService.calculateResult(sessionId);
-        }
+                if (!examSessionRepository.existsById(sessionId)) {
+                        throw new NotFoundException("Session not found");
+                }
 
-        private ExamSessionResponse toResponse(ExamSession session) {
-                return new ExamSessionResponse(
-                                session.getId(),
-                                session.getExam().getTimeLimitSeconds(),
-                                session.getStartTime());
+                return assessmentService.getResult(sessionId);
         }
 }
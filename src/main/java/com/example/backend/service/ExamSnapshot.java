@@ -0,0 +1,80 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.Exam;
+import com.example.backend.domain.Question;
+import com.example.backend.domain.Subject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of an exam's content (questions, options and answer key) as of one
+ * cache version. Never handed out to API clients directly: it carries the answer key.
+ */
+public record ExamSnapshot(
+        Long examId,
+        long version,
+        String title,
+        int timeLimitSeconds,
+        List<QuestionSnapshot> questions,
+        Map<Long, QuestionSnapshot> questionsById,
+        Map<Subject, Integer> questionCountBySubject
+) {
+
+    public record QuestionSnapshot(
+            Long id,
+            Subject subject,
+            String content,
+            List<String> options,
+            Integer correctIndex
+    ) {
+        public boolean isCorrect(Integer chosenIndex) {
+            return correctIndex != null && correctIndex.equals(chosenIndex);
+        }
+    }
+
+    static ExamSnapshot of(Exam exam, List<Question> questions, long version) {
+        Map<Long, QuestionSnapshot> byId = new LinkedHashMap<>();
+        Map<Subject, Integer> bySubject = new EnumMap<>(Subject.class);
+        for (Question q : questions) {
+            QuestionSnapshot snapshot = new QuestionSnapshot(
+                    q.getId(),
+                    q.getSubject(),
+                    q.getContent(),
+                    q.getOptions() == null ? List.of() : List.copyOf(q.getOptions()),
+                    q.getCorrectIndex());
+            byId.put(q.getId(), snapshot);
+            if (q.getSubject() != null) {
+                bySubject.merge(q.getSubject(), 1, Integer::sum);
+            }
+        }
+        return new ExamSnapshot(
+                exam.getId(),
+                version,
+                exam.getTitle(),
+                exam.getTimeLimitSeconds(),
+                List.copyOf(byId.values()),
+                Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(bySubject));
+    }
+
+    public QuestionSnapshot question(Long questionId) {
+        return questionsById.get(questionId);
+    }
+
+    public int questionCount() {
+        return questions.size();
+    }
+
+    public Page<QuestionSnapshot> page(Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), questions.size());
+        int to = Math.min(from + pageable.getPageSize(), questions.size());
+        return new PageImpl<>(questions.subList(from, to), pageable, questions.size());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Replays the result of a request carrying a client {@code Idempotency-Key} that was
+ * already handled, without running it again.
+ *
+ * Keys are scoped by operation and target (e.g. the session id), so a key reused for a
+ * different session is a different request. A retry that arrives while the first
+ * request is still running waits for it, up to a bound, and gets the same result; past
+ * the bound it is answered with a conflict. Failures are not remembered, so a failed
+ * request can be retried with the same key. Entries are kept for a fixed time and
+ * bounded in number, oldest dropped first.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long waitMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final Counter replays;
+
+    public IdempotencyCache(MeterRegistry meterRegistry,
+                            @Value("${idempotency.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.wait-millis:10000}") long waitMillis) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.waitMillis = waitMillis;
+        this.replays = meterRegistry.counter("idempotency.replays");
+        meterRegistry.gauge("idempotency.entries", entries, Map::size);
+    }
+
+    public <T> T execute(String operation, Object target, String key, Supplier<T> action) {
+        return execute(operation, target, key, action, result -> true);
+    }
+
+    /**
+     * Runs the action once per key. Only results accepted by {@code remember} are kept;
+     * others are returned but the next request with the key runs the action again.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object target, String key, Supplier<T> action, Predicate<T> remember) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String scoped = operation + ":" + target + ":" + key;
+        long now = System.nanoTime();
+
+        Entry fresh = new Entry(now);
+        Entry existing = entries.compute(scoped, (k, current) ->
+                current == null || current.expired(now, ttlNanos) ? fresh : current);
+        if (existing != fresh) {
+            replays.increment();
+            try {
+                return (T) existing.result.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                // The first attempt failed while this one waited: run it ourselves
+                return execute(operation, target, key, action, remember);
+            } catch (TimeoutException e) {
+                throw new ConflictException("A request with this idempotency key is still in progress");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("A request with this idempotency key is still in progress");
+            }
+        }
+        insertionOrder.add(scoped);
+        evict(now);
+
+        try {
+            T result = action.get();
+            if (!remember.test(result)) {
+                entries.remove(scoped, fresh);
+            }
+            fresh.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too, or a waiting retry would never be woken
+            entries.remove(scoped, fresh);
+            fresh.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        for (String oldest; (oldest = insertionOrder.peek()) != null; ) {
+            Entry entry = entries.get(oldest);
+            boolean stale = entry == null || entry.expired(now, ttlNanos);
+            if (!stale && entries.size() <= maxEntries) {
+                return;
+            }
+            insertionOrder.poll();
+            if (entry != null) {
+                entries.remove(oldest, entry);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final long createdNanos;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+
+        boolean expired(long now, long ttlNanos) {
+            return now - createdNanos > ttlNanos;
+        }
+    }
+}
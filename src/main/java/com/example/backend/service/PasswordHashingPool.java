@@ -0,0 +1,249 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool instead of the
+ * request threads, so a class signing in at once cannot take every core away from the
+ * exam endpoints.
+ *
+ * Work waits in a bounded priority queue: sign-ins first, then new passwords, then
+ * background upgrades of legacy plaintext passwords. When the queue is full, or a caller
+ * has waited longer than the timeout, the call fails fast with
+ * {@link ServiceUnavailableException} and the client is asked to retry.
+ */
+@Component
+public class PasswordHashingPool {
+
+    public enum Priority { LOGIN, ENCODE, UPGRADE }
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final long timeoutMillis;
+
+    private final BoundedPriorityQueue queue;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Priority, Timer> queueTimes = new EnumMap<>(Priority.class);
+    private final Timer hashing;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    public PasswordHashingPool(PasswordEncoder passwordEncoder,
+                               MeterRegistry meterRegistry,
+                               @Value("${passwords.hashing.threads:2}") int threads,
+                               @Value("${passwords.hashing.capacity:200}") int capacity,
+                               @Value("${passwords.hashing.timeout-millis:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new BoundedPriorityQueue(capacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Priority priority : Priority.values()) {
+            queueTimes.put(priority, Timer.builder("auth.passwords.queue")
+                    .tag("priority", priority.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry));
+        }
+        this.hashing = meterRegistry.timer("auth.passwords.hashing");
+        this.rejected = meterRegistry.counter("auth.passwords.rejected", "reason", "queue-full");
+        this.timedOut = meterRegistry.counter("auth.passwords.rejected", "reason", "timeout");
+        meterRegistry.gauge("auth.passwords.queued", queue, BoundedPriorityQueue::size);
+    }
+
+    /**
+     * Whether the stored value is a BCrypt hash rather than a legacy plaintext password.
+     */
+    public static boolean isEncoded(String stored) {
+        return stored != null && BCRYPT.matcher(stored).matches();
+    }
+
+    public boolean matches(String raw, String encoded) {
+        return await(submit(Priority.LOGIN, () -> passwordEncoder.matches(raw, encoded)));
+    }
+
+    public String encode(String raw) {
+        return await(submit(Priority.ENCODE, () -> passwordEncoder.encode(raw)));
+    }
+
+    /**
+     * Hashes the password at the lowest priority without waiting for it. The returned
+     * future fails when the queue is full.
+     */
+    public CompletableFuture<String> encodeInBackground(String raw) {
+        return submit(Priority.UPGRADE, () -> passwordEncoder.encode(raw));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Priority priority, Supplier<T> work) {
+        Task<T> task = new Task<>(priority, sequence.incrementAndGet(), work);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // The queue refused the task: it is full (or the pool is shutting down)
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly"));
+        }
+        return task.result;
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drop the work if it is still queued; nobody is waiting for it any more
+            result.cancel(false);
+            timedOut.increment();
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while checking the password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private final class Task<T> implements Runnable, Comparable<Task<?>> {
+        final Priority priority;
+        final long seq;
+        final long enqueuedNanos = System.nanoTime();
+        final Supplier<T> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Task(Priority priority, long seq, Supplier<T> work) {
+            this.priority = priority;
+            this.seq = seq;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            queueTimes.get(priority).record(System.nanoTime() - enqueuedNanos, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(hashing.record(work));
+            } catch (Throwable e) {
+                // Complete on errors too, or the caller would wait until its timeout
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * Priority queue that refuses offers beyond its capacity, which makes the executor
+     * reject the task. The capacity check and the insert happen as one step, so concurrent
+     * submits cannot overfill it.
+     */
+    private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        private final Semaphore slots;
+
+        BoundedPriorityQueue(int capacity) {
+            this.slots = new Semaphore(capacity);
+        }
+
+        @Override
+        public boolean offer(Runnable task) {
+            if (!slots.tryAcquire()) {
+                return false;
+            }
+            return super.offer(task);
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            return released(super.take());
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return released(super.poll(timeout, unit));
+        }
+
+        @Override
+        public Runnable poll() {
+            return released(super.poll());
+        }
+
+        @Override
+        public boolean remove(Object task) {
+            if (!super.remove(task)) {
+                return false;
+            }
+            slots.release();
+            return true;
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> target) {
+            return drainTo(target, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> target, int maxElements) {
+            int drained = super.drainTo(target, maxElements);
+            slots.release(drained);
+            return drained;
+        }
+
+        private Runnable released(Runnable task) {
+            if (task != null) {
+                slots.release();
+            }
+            return task;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.QuestionContentDto;
+import com.example.backend.dto.QuestionContentPageResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Question pages rendered once per exam snapshot to JSON bytes, together with a gzip
+ * copy and a content-derived ETag. Thousands of concurrent page fetches for the same
+ * exam then share the same byte arrays instead of re-running serialization.
+ *
+ * Rendered pages are tied to the snapshot they were built from and are dropped when
+ * {@link ExamContentCache} evicts or invalidates the exam. Only pages inside the exam are
+ * kept, and at most {@code exam.question-pages.max-entries} of them across all exams;
+ * requests past the last page are rendered without being cached.
+ */
+@Component
+public class QuestionPagePayloadCache {
+
+    private final ExamContentCache examContentCache;
+    private final JsonMapper jsonMapper;
+    private final Cache<PageKey, RenderedPage> pages;
+
+    public QuestionPagePayloadCache(ExamContentCache examContentCache, JsonMapper jsonMapper,
+                                    @Value("${exam.question-pages.max-entries:2000}") int maxEntries) {
+        this.examContentCache = examContentCache;
+        this.jsonMapper = jsonMapper;
+        this.pages = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        examContentCache.addEvictionListener(examId ->
+                pages.asMap().keySet().removeIf(key -> key.examId().equals(examId)));
+    }
+
+    public RenderedPage get(Long examId, int page, int size) {
+        ExamSnapshot snapshot = examContentCache.get(examId);
+        int totalPages = (snapshot.questionCount() + size - 1) / size;
+        if (page > 0 && page >= totalPages) {
+            return render(snapshot, page, size);
+        }
+        return pages.get(new PageKey(examId, snapshot.version(), page, size), key -> render(snapshot, page, size));
+    }
+
+    long cachedPages() {
+        pages.cleanUp();
+        return pages.estimatedSize();
+    }
+
+    private RenderedPage render(ExamSnapshot snapshot, int page, int size) {
+        Page<ExamSnapshot.QuestionSnapshot> questionPage = snapshot.page(PageRequest.of(page, size));
+        List<QuestionContentDto> questions = questionPage.getContent().stream()
+                .map(q -> new QuestionContentDto(q.id(), q.content(), q.options()))
+                .toList();
+        byte[] json = jsonMapper.writeValueAsBytes(new QuestionContentPageResponse(
+                questions,
+                questionPage.getTotalPages(),
+                questionPage.getNumber(),
+                questionPage.isLast()));
+
+        String hash = sha256(json);
+        return new RenderedPage(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One page in both encodings. Each encoding has its own strong ETag, as required
+     * for byte-different representations of the same resource.
+     */
+    public record RenderedPage(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    // The snapshot version keeps pages of a replaced snapshot from being served
+    private record PageKey(Long examId, long version, int page, int size) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.SessionStatus;
+import com.example.backend.exception.NotFoundException;
+import com.example.backend.repository.ExamRepository;
+import com.example.backend.repository.ExamSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the reports of every completed session of an exam as one ZIP archive.
+ *
+ * Reports are rendered (or read from {@link ReportFileCache}) on a fixed worker pool, at
+ * most {@code window} at a time, and copied into the archive in session order. Only the
+ * reports in the window are held, so memory does not grow with the cohort. The writer
+ * pins each report while copying it; the workers only make sure it is in the cache.
+ */
+@Service
+public class ReportArchiveService {
+
+    private final ExamRepository examRepository;
+    private final ExamSessionRepository examSessionRepository;
+    private final ReportService reportService;
+    private final int window;
+    private final ExecutorService workers;
+
+    public ReportArchiveService(ExamRepository examRepository,
+                                ExamSessionRepository examSessionRepository,
+                                ReportService reportService,
+                                @Value("${reports.archive.threads:4}") int threads,
+                                @Value("${reports.archive.window:16}") int window) {
+        this.examRepository = examRepository;
+        this.examSessionRepository = examSessionRepository;
+        this.reportService = reportService;
+        this.window = Math.max(window, threads);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "report-archive-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fails fast, before any byte is written, when the exam does not exist.
+     */
+    public List<ExamSessionRepository.ReportTargetRow> targets(Long examId) {
+        if (!examRepository.existsById(examId)) {
+            throw new NotFoundException("Exam not found: " + examId);
+        }
+        return examSessionRepository.findReportTargets(examId, SessionStatus.COMPLETED);
+    }
+
+    /**
+     * Writes one PDF entry per target to {@code out}. The caller owns {@code out}; the
+     * archive is finished but the stream is not closed.
+     */
+    public void writeArchive(List<ExamSessionRepository.ReportTargetRow> targets, OutputStream out)
+            throws IOException {
+        // Entry names are flagged as UTF-8, so non-ASCII student names survive unzipping
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // PDFs are already compressed
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        Deque<Future<?>> inFlight = new ArrayDeque<>();
+        Deque<ExamSessionRepository.ReportTargetRow> pending = new ArrayDeque<>();
+        Iterator<ExamSessionRepository.ReportTargetRow> it = targets.iterator();
+        try {
+            while (it.hasNext() || !inFlight.isEmpty()) {
+                while (it.hasNext() && inFlight.size() < window) {
+                    ExamSessionRepository.ReportTargetRow target = it.next();
+                    // Released at once, so a cancelled task cannot leave its report pinned
+                    inFlight.add(workers.submit(() -> {
+                        reportService.getReport(target.getStudentId(), target.getSessionId()).close();
+                        return null;
+                    }));
+                    pending.add(target);
+                }
+
+                await(inFlight.poll());
+                ExamSessionRepository.ReportTargetRow target = pending.poll();
+                try (ReportFileCache.CachedReport report = read(target)) {
+                    zip.putNextEntry(new ZipEntry(entryName(target)));
+                    Files.copy(report.path(), zip);
+                    zip.closeEntry();
+                }
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            inFlight.forEach(f -> f.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering reports", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Report rendering failed", e.getCause());
+        }
+    }
+
+    // Normally a cache hit, since a worker has just rendered the report
+    private ReportFileCache.CachedReport read(ExamSessionRepository.ReportTargetRow target) throws IOException {
+        try {
+            return reportService.getReport(target.getStudentId(), target.getSessionId());
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Report rendering failed", e);
+        }
+    }
+
+    private static String entryName(ExamSessionRepository.ReportTargetRow target) {
+        String name = (target.getLastName() + "_" + target.getFirstName()).replaceAll("[^\\p{L}\\p{N}_-]", "");
+        return name + "_" + target.getSessionId() + ".pdf";
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of rendered PDF reports.
+ *
+ * A report is addressed by its session id and result revision, and the bytes for one
+ * address never change: a recomputed result has a new revision and therefore a new file.
+ * Files are written to a temporary name and moved into place, so readers never see a
+ * partial report. Reports are rendered straight into that temporary file rather than
+ * through an in-memory buffer. The cache is bounded by total bytes, evicting the least recently
+ * served report first; files already on disk are picked up again on startup.
+ *
+ * A returned report is pinned until it is closed: an entry evicted or superseded while
+ * pinned leaves the cache at once, but its file is deleted only when the last reader
+ * closes it. Concurrent misses on the same report share one render.
+ */
+@Component
+@Slf4j
+public class ReportFileCache {
+
+    /**
+     * Writes the report to the given stream; the cache owns and closes the stream.
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws Exception;
+    }
+
+    /**
+     * A report file held open for reading; close it once the file has been read.
+     */
+    public static final class CachedReport implements AutoCloseable {
+        private final Path path;
+        private final long size;
+        private final String etag;
+        private final Entry pinned;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /**
+         * A report file the cache does not manage, so closing it does nothing.
+         */
+        public CachedReport(Path path, long size, String etag) {
+            this(path, size, etag, null);
+        }
+
+        private CachedReport(Path path, long size, String etag, Entry pinned) {
+            this.path = path;
+            this.size = size;
+            this.etag = etag;
+            this.pinned = pinned;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        @Override
+        public void close() {
+            if (pinned != null && closed.compareAndSet(false, true)) {
+                pinned.unpin();
+            }
+        }
+    }
+
+    private static final String SUFFIX = ".pdf";
+    // Separates the key from a counter in the name of a second file for the same report
+    private static final String GENERATION = "~";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> renders = new ConcurrentHashMap<>();
+    private final AtomicLong heldBytes = new AtomicLong();
+    private final AtomicLong accessClock = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ReportFileCache(MeterRegistry meterRegistry,
+                           @Value("${reports.cache.dir:${java.io.tmpdir}/assessment-reports}") String directory,
+                           @Value("${reports.cache.max-bytes:536870912}") long maxBytes) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.maxBytes = maxBytes;
+
+        this.hits = meterRegistry.counter("reports.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("reports.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("reports.cache.evictions");
+        meterRegistry.gauge("reports.cache.bytes", heldBytes);
+
+        loadExisting();
+    }
+
+    /**
+     * Returns the cached report of the session at the given result revision, rendering
+     * and storing it on a miss. A miss while the same report is rendering waits for that
+     * render. The report is pinned until the caller closes it.
+     */
+    public CachedReport get(UUID sessionId, int revision, Renderer renderer) throws Exception {
+        String key = key(sessionId, revision);
+        while (true) {
+            CachedReport cached = pin(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+
+            CompletableFuture<Void> rendering = new CompletableFuture<>();
+            CompletableFuture<Void> running = renders.putIfAbsent(key, rendering);
+            if (running != null) {
+                await(running);
+                continue;
+            }
+            try {
+                // A render may have finished between the lookup above and claiming this one
+                cached = pin(key);
+                if (cached == null) {
+                    misses.increment();
+                    cached = render(key, sessionId, revision, renderer);
+                }
+                rendering.complete(null);
+                return cached;
+            } catch (Exception | Error e) {
+                rendering.completeExceptionally(e);
+                throw e;
+            } finally {
+                renders.remove(key, rendering);
+            }
+        }
+    }
+
+    private CachedReport pin(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.pin()) {
+            return null;
+        }
+        if (!Files.exists(entry.path)) {
+            // Deleted behind the cache's back; render it again
+            entry.unpin();
+            remove(key, entry);
+            return null;
+        }
+        entry.lastAccess = accessClock.incrementAndGet();
+        return entry.report();
+    }
+
+    private static void await(CompletableFuture<Void> render) throws Exception {
+        try {
+            render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private CachedReport render(String key, UUID sessionId, int revision, Renderer renderer) throws Exception {
+        Path target = directory.resolve(key + SUFFIX);
+        if (Files.exists(target)) {
+            // An evicted copy of this report is still being read and must not be replaced
+            target = directory.resolve(key + GENERATION + accessClock.incrementAndGet() + SUFFIX);
+        }
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        long size;
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 16 * 1024)) {
+                renderer.render(out);
+            }
+            size = Files.size(temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        Entry stored = new Entry(target, size, etag(key), accessClock.incrementAndGet());
+        // Pinned before it is published, so the bound below cannot delete it under the caller
+        stored.pin();
+        // Renders are single-flight and start only when the key has no usable entry
+        heldBytes.addAndGet(size);
+        Entry previous = entries.put(key, stored);
+        if (previous != null) {
+            heldBytes.addAndGet(-previous.size);
+            if (!previous.path.equals(target)) {
+                previous.retire();
+            }
+        }
+        dropOlderRevisions(sessionId, revision);
+        enforceBound();
+        return stored.report();
+    }
+
+    private void dropOlderRevisions(UUID sessionId, int revision) {
+        String prefix = sessionId + "-";
+        entries.keySet().stream()
+                .filter(key -> key.startsWith(prefix) && !key.equals(key(sessionId, revision)))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    // Bytes of evicted entries still pinned by a reader no longer count towards the bound,
+    // although their files stay on disk until the reader is done
+    private void enforceBound() {
+        while (heldBytes.get() > maxBytes && entries.size() > 1) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                    .ifPresent(e -> {
+                        remove(e.getKey());
+                        evictions.increment();
+                    });
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            heldBytes.addAndGet(-removed.size);
+            removed.retire();
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            heldBytes.addAndGet(-entry.size);
+            entry.retire();
+        }
+    }
+
+    private void loadExisting() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    String key = name.substring(0, name.length() - SUFFIX.length());
+                    if (key.contains(GENERATION)) {
+                        key = key.substring(0, key.indexOf(GENERATION));
+                    }
+                    long size = Files.size(file);
+                    long lastAccess = Files.getLastModifiedTime(file).toMillis();
+                    Entry loaded = new Entry(file, size, etag(key), lastAccess);
+                    Entry previous = entries.get(key);
+                    if (previous != null && previous.lastAccess > lastAccess) {
+                        loaded.retire();
+                        continue;
+                    }
+                    entries.put(key, loaded);
+                    heldBytes.addAndGet(size - (previous == null ? 0 : previous.size));
+                    if (previous != null) {
+                        previous.retire();
+                    }
+                }
+            }
+        }
+        // Files from a previous run rank by modification time, below anything served now
+        accessClock.set(entries.values().stream().mapToLong(e -> e.lastAccess).max().orElse(0));
+        enforceBound();
+        if (!entries.isEmpty()) {
+            log.info("Report cache: found {} report(s), {} bytes in {}", entries.size(), heldBytes.get(), directory);
+        }
+    }
+
+    private static String key(UUID sessionId, int revision) {
+        return sessionId + "-" + revision;
+    }
+
+    /**
+     * The ETag a report of the session at the given revision is served with. Known from the
+     * revision alone, so a conditional request can be answered without rendering.
+     */
+    public static String etag(UUID sessionId, int revision) {
+        return etag(key(sessionId, revision));
+    }
+
+    private static String etag(String key) {
+        return "\"" + key + "\"";
+    }
+
+    /**
+     * A cached file and the number of readers holding it. Once retired (no longer in the
+     * cache), the file is deleted by whichever comes last: the retirement or the last
+     * reader's unpin. A pin count of -1 marks the file as deleted; it can no longer be pinned.
+     */
+    private static final class Entry {
+        final Path path;
+        final long size;
+        final String etag;
+        volatile long lastAccess;
+        private final AtomicInteger pins = new AtomicInteger();
+        private volatile boolean retired;
+
+        Entry(Path path, long size, String etag, long lastAccess) {
+            this.path = path;
+            this.size = size;
+            this.etag = etag;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean pin() {
+            while (true) {
+                int current = pins.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (pins.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void unpin() {
+            if (pins.decrementAndGet() == 0 && retired) {
+                deleteIfUnpinned();
+            }
+        }
+
+        void retire() {
+            retired = true;
+            deleteIfUnpinned();
+        }
+
+        private void deleteIfUnpinned() {
+            if (!pins.compareAndSet(0, -1)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete cached report {}", path, e);
+            }
+        }
+
+        /** Must be called with a pin held; the report releases it on close. */
+        CachedReport report() {
+            return new CachedReport(path, size, etag, this);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders reports of finished sessions in the background, so the student's first
+ * download is usually a {@link ReportFileCache} hit.
+ *
+ * Jobs wait in a bounded priority queue. A download that finds its job still queued
+ * moves it to the front and waits a short while for it; if it has not completed by then
+ * the download asks the cache itself, which renders the report on the request thread or,
+ * if the job has started meanwhile, waits for that render instead of repeating it. PDF rendering is CPU-bound, so
+ * the pool is a small fixed number of platform threads rather than one thread per job.
+ */
+@Component
+@Slf4j
+public class ReportRenderQueue {
+
+    private final ReportService reportService;
+    private final int capacity;
+    private final long waitMillis;
+
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter rendered;
+    private final Counter dropped;
+    private final Counter fallbacks;
+
+    public ReportRenderQueue(ReportService reportService,
+                             MeterRegistry meterRegistry,
+                             @Value("${reports.prerender.threads:2}") int threads,
+                             @Value("${reports.prerender.capacity:10000}") int capacity,
+                             @Value("${reports.prerender.wait-millis:2000}") long waitMillis) {
+        this.reportService = reportService;
+        this.capacity = capacity;
+        this.waitMillis = waitMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "report-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.rendered = meterRegistry.counter("reports.prerender.jobs", "result", "rendered");
+        this.dropped = meterRegistry.counter("reports.prerender.jobs", "result", "dropped");
+        this.fallbacks = meterRegistry.counter("reports.prerender.jobs", "result", "fallback");
+        meterRegistry.gauge("reports.prerender.queue", queue, PriorityBlockingQueue::size);
+    }
+
+    /**
+     * Queues rendering of the session's report once the current transaction commits.
+     * When the queue is full the job is dropped; the download renders it instead.
+     */
+    public void enqueue(UUID studentId, UUID sessionId) {
+        Runnable submit = () -> {
+            if (queue.size() >= capacity) {
+                dropped.increment();
+                return;
+            }
+            Job job = new Job(studentId, sessionId, sequence.incrementAndGet());
+            if (jobs.putIfAbsent(sessionId, job) == null) {
+                executor.execute(job);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    /**
+     * The session's report, taken from the cache once its background job is done, or
+     * rendered on the calling thread as a fallback. The caller closes it.
+     */
+    public ReportFileCache.CachedReport getReport(UUID studentId, UUID sessionId) throws Exception {
+        Job job = jobs.get(sessionId);
+        if (job != null) {
+            // Re-insert with download priority if it has not been picked up yet
+            if (queue.remove(job)) {
+                job.requested = true;
+                queue.add(job);
+            }
+            try {
+                job.result.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                fallbacks.increment();
+            }
+        }
+        return reportService.getReport(studentId, sessionId);
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final class Job implements Runnable, Comparable<Job> {
+        final UUID studentId;
+        final UUID sessionId;
+        final long seq;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        volatile boolean requested;
+
+        Job(UUID studentId, UUID sessionId, long seq) {
+            this.studentId = studentId;
+            this.sessionId = sessionId;
+            this.seq = seq;
+        }
+
+        @Override
+        public void run() {
+            // Only fills the cache; the download pins its own copy
+            try (ReportFileCache.CachedReport ignored = reportService.getReport(studentId, sessionId)) {
+                result.complete(null);
+                rendered.increment();
+            } catch (Exception e) {
+                log.warn("Pre-rendering report of session {} failed", sessionId, e);
+                result.completeExceptionally(e);
+            } finally {
+                jobs.remove(sessionId, this);
+            }
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (requested != other.requested) {
+                return requested ? -1 : 1;
+            }
+            return Long.compare(seq, other.seq);
+        }
+    }
+}
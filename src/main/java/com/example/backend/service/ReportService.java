@@ -1,7 +1,11 @@
 package com.example.backend.service;
 
 import com.example.backend.domain.Student;
+import com.example.backend.domain.Subject;
 import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
+import com.example.backend.exception.NotFoundException;
+import com.example.backend.repository.SessionResultRepository;
 import com.example.backend.repository.StudentRepository;
 import org.springframework.stereotype.Service;
 
@@ -9,69 +13,104 @@ import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfWriter;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class ReportService {
 
+    // Built once; the layout only reads them
+    private static final Font HEADER_FONT = new Font(Font.HELVETICA, 18, Font.BOLD);
+    private static final Font LABEL_FONT = new Font(Font.HELVETICA, 12, Font.BOLD);
+    private static final Font VALUE_FONT = new Font(Font.HELVETICA, 12);
+    private static final DateTimeFormatter COMPLETED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final AssessmentService assessmentService;
     private final StudentRepository studentRepository;
+    private final SessionResultRepository sessionResultRepository;
+    private final ReportFileCache reportFileCache;
 
-    public ReportService(AssessmentService assessmentService, StudentRepository studentRepository) {
+    public ReportService(AssessmentService assessmentService, StudentRepository studentRepository,
+                         SessionResultRepository sessionResultRepository, ReportFileCache reportFileCache) {
         this.assessmentService = assessmentService;
         this.studentRepository = studentRepository;
+        this.sessionResultRepository = sessionResultRepository;
+        this.reportFileCache = reportFileCache;
+    }
+
+    /**
+     * The report of a completed session as a cached file, rendered only the first time
+     * the session's current result revision is requested.
+     */
+    public ReportFileCache.CachedReport getReport(UUID studentId, UUID sessionId) throws Exception {
+        int revision = sessionResultRepository.findRevisionBySessionId(sessionId)
+                .orElseThrow(() -> new NotFoundException("Result not found"));
+        return reportFileCache.get(sessionId, revision, out -> writePdf(studentId, sessionId, out));
     }
 
+    /**
+     * Renders the report into a byte array. Prefer {@link #writePdf} where the bytes
+     * have a destination already.
+     */
     public byte[] generatePdf(UUID studentId, UUID sessionId) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writePdf(studentId, sessionId, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Renders the report straight into {@code out} as the document is laid out. The stream
+     * is flushed but left open for the caller.
+     */
+    public void writePdf(UUID studentId, UUID sessionId, OutputStream out) throws Exception {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found"));
 
-        ExamResult result = assessmentService.calculateResult(sessionId);
+        ExamResult result = assessmentService.getResult(sessionId);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Document document = new Document();
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
 
         document.open();
 
-        Font headerFont = new Font(Font.HELVETICA, 18, Font.BOLD);
-        Font labelFont = new Font(Font.HELVETICA, 12, Font.BOLD);
-        Font valueFont = new Font(Font.HELVETICA, 12);
-
-        Paragraph header = new Paragraph("Assessment Report", headerFont);
+        Paragraph header = new Paragraph("Assessment Report", HEADER_FONT);
         header.setAlignment(Element.ALIGN_CENTER);
         header.setSpacingAfter(20);
         document.add(header);
 
-        Paragraph studentName = new Paragraph("Student: " + student.getFirstname() + " " + student.getLastname(), valueFont);
+        Paragraph studentName = new Paragraph("Student: " + student.getFirstname() + " " + student.getLastname(), VALUE_FONT);
         studentName.setSpacingAfter(15);
         document.add(studentName);
 
-        Paragraph mathScore = new Paragraph(
-                "Math: " + result.getMathCorrect() + "/" + result.getMathTotal() +
-                        " (" + String.format("%.2f", result.getMathPercentage()) + "%)", valueFont);
-        mathScore.setSpacingAfter(10);
-        document.add(mathScore);
-
-        Paragraph englishScore = new Paragraph(
-                "English: " + result.getEnglishCorrect() + "/" + result.getEnglishTotal() +
-                        " (" + String.format("%.2f", result.getEnglishPercentage()) + "%)", valueFont);
-        englishScore.setSpacingAfter(10);
-        document.add(englishScore);
+        for (Map.Entry<Subject, SubjectScore> subject : result.getSubjects().entrySet()) {
+            Paragraph subjectScore = new Paragraph(score(label(subject.getKey()), subject.getValue()), VALUE_FONT);
+            subjectScore.setSpacingAfter(10);
+            document.add(subjectScore);
+        }
 
         Paragraph totalScore = new Paragraph(
-                "Total: " + result.getTotalCorrect() + "/" + result.getTotalQuestions() +
-                        " (" + String.format("%.2f", result.getTotalPercentage()) + "%)", labelFont);
+                score("Total", new SubjectScore(result.getTotalCorrect(), result.getTotalQuestions())), LABEL_FONT);
         totalScore.setSpacingAfter(15);
         document.add(totalScore);
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        Paragraph date = new Paragraph("Completed at: " + result.getCompletedAt().format(formatter), valueFont);
+        Paragraph date = new Paragraph("Completed at: " + result.getCompletedAt().format(COMPLETED_AT), VALUE_FONT);
         document.add(date);
 
         document.close();
+        out.flush();
+    }
 
-        return baos.toByteArray();
+    private static String score(String label, SubjectScore score) {
+        return label + ": " + score.correct() + "/" + score.total() + " (" + String.format("%.2f", score.percentage()) + "%)";
+    }
+
+    // MATH -> Math
+    private static String label(Subject subject) {
+        String name = subject.name().replace('_', ' ');
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
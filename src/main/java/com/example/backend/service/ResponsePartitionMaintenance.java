@@ -0,0 +1,91 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps monthly student_responses partitions created ahead of the sessions that will
+ * write to them. The DDL lives in the {@code create_student_responses_partition}
+ * function of the migrations; each month is created in its own short transaction, and a
+ * month that cannot get its lock is left for the next run. Rows that reached the default
+ * partition before their month existed are moved into it when it is created; rows still
+ * there afterwards belong to no upcoming month and are reported for a manual fix.
+ */
+@Component
+@Slf4j
+public class ResponsePartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    private final Counter created;
+    private final Counter failed;
+    private final AtomicLong defaultRows = new AtomicLong();
+
+    public ResponsePartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${exam.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.created = meterRegistry.counter("exam.partitions.created");
+        this.failed = meterRegistry.counter("exam.partitions.failed");
+        meterRegistry.gauge("exam.partitions.default.rows", defaultRows);
+    }
+
+    /**
+     * Creates the partitions from the current month up to the configured number of months
+     * ahead that do not exist yet.
+     *
+     * @return number of partitions created
+     */
+    public int createAhead() {
+        return createAhead(YearMonth.now());
+    }
+
+    int createAhead(YearMonth from) {
+        int count = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = from.plusMonths(i).atDay(1);
+            try {
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT create_student_responses_partition(?)", Boolean.class, month))) {
+                    created.increment();
+                    count++;
+                    log.info("Created student_responses partition for {}", YearMonth.from(month));
+                }
+            } catch (DataAccessException e) {
+                failed.increment();
+                log.warn("Could not create student_responses partition for {}: {}",
+                        YearMonth.from(month), e.getMostSpecificCause().getMessage());
+            }
+        }
+        checkDefaultPartition();
+        return count;
+    }
+
+    long defaultRows() {
+        return defaultRows.get();
+    }
+
+    private void checkDefaultPartition() {
+        try {
+            Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM student_responses_default", Long.class);
+            defaultRows.set(rows != null ? rows : 0);
+            if (defaultRows.get() > 0) {
+                log.warn("student_responses_default holds {} row(s) outside every monthly partition",
+                        defaultRows.get());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not count rows in student_responses_default: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TeacherStudentResultDto;
+import com.example.backend.repository.SessionResultRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes graded sessions straight from a database cursor to an output stream, one row
+ * at a time, so exports of any size run in constant memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResultExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "session_id,student_name,exam_title,score,total_questions,percentage,date";
+
+    /** Leading characters that make Excel and LibreOffice evaluate a cell. */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final SessionResultRepository sessionResultRepository;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Streams every result matching the optional filters to {@code out}. The caller owns
+     * {@code out}; it is flushed but not closed.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, Long examId, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = 0;
+        try (Stream<SessionResultRepository.ResultRow> stream = sessionResultRepository.streamRows(examId, from, to)) {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<SessionResultRepository.ResultRow> it = stream.iterator();
+            while (it.hasNext()) {
+                TeacherStudentResultDto dto = toDto(it.next());
+                if (format == Format.CSV) {
+                    writeCsv(writer, dto);
+                } else {
+                    writer.write(jsonMapper.writeValueAsString(dto));
+                }
+                writer.write('\n');
+                rows++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static TeacherStudentResultDto toDto(SessionResultRepository.ResultRow row) {
+        return new TeacherStudentResultDto(
+                row.getSessionId(),
+                row.getFirstName() + " " + row.getLastName(),
+                row.getExamTitle(),
+                row.getTotalCorrect(),
+                row.getTotalQuestions(),
+                row.getTotalPercentage(),
+                row.getSubmitTime() != null ? row.getSubmitTime() : row.getCompletedAt());
+    }
+
+    private static void writeCsv(Writer writer, TeacherStudentResultDto dto) throws IOException {
+        writer.write(dto.getSessionId().toString());
+        writer.write(',');
+        writer.write(csvField(dto.getStudentName()));
+        writer.write(',');
+        writer.write(csvField(dto.getExamTitle()));
+        writer.write(',');
+        writer.write(Integer.toString(dto.getScore()));
+        writer.write(',');
+        writer.write(Integer.toString(dto.getTotalQuestions()));
+        writer.write(',');
+        writer.write(String.format(Locale.ROOT, "%.2f", dto.getPercentage()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getDate()));
+    }
+
+    /**
+     * Quotes a text cell when needed. A cell a spreadsheet would read as a formula gets a
+     * leading apostrophe, so a student name such as {@code =HYPERLINK(...)} stays text.
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -20,7 +20,7 @@ public class ResultService {
      * Calculates the result for the given session and returns the report download URL.
      */
     public String calculateResult(UUID sessionId) {
-        ExamResult result = assessmentService.calculateResult(sessionId);
+        ExamResult result = assessmentService.getResult(sessionId);
         return sessionId + "/download";
     }
 }
@@ -0,0 +1,176 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory deadlines of running exam sessions, kept in a hashed timing wheel.
+ *
+ * Each deadline lands in the bucket of its tick modulo the wheel size, so an
+ * {@link #advance()} only walks the buckets of the ticks that elapsed, whatever the
+ * total number of deadlines. A deadline further away than one rotation carries the
+ * number of times its bucket must still be passed before it is due. New deadlines are
+ * queued and moved into their bucket by the advancing thread, which is the only one
+ * touching the buckets.
+ *
+ * A deadline stays known until {@link #cancel(UUID)} is called, so {@link #isExpired(UUID)}
+ * keeps rejecting late answers between expiry and the automatic submission.
+ */
+@Component
+public class SessionDeadlineWheel {
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final long graceMillis;
+    private final List<Deadline>[] buckets;
+    private final int mask;
+
+    private final Map<UUID, Deadline> deadlines = new ConcurrentHashMap<>();
+    private final Queue<Deadline> pending = new ConcurrentLinkedQueue<>();
+    private long nextTick;
+
+    @Autowired
+    public SessionDeadlineWheel(MeterRegistry meterRegistry,
+                                @Value("${exam.deadlines.tick-millis:1000}") long tickMillis,
+                                @Value("${exam.deadlines.wheel-size:512}") int wheelSize,
+                                @Value("${exam.deadlines.grace-seconds:5}") int graceSeconds) {
+        this(Clock.systemDefaultZone(), tickMillis, wheelSize, graceSeconds);
+        meterRegistry.gauge("exam.deadlines.scheduled", deadlines, Map::size);
+    }
+
+    @SuppressWarnings("unchecked")
+    SessionDeadlineWheel(Clock clock, long tickMillis, int wheelSize, int graceSeconds) {
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.graceMillis = graceSeconds * 1000L;
+
+        int size = Integer.highestOneBit(Math.max(wheelSize, 1) - 1) << 1;
+        this.buckets = new List[Math.max(size, 1)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = buckets.length - 1;
+        this.nextTick = clock.millis() / tickMillis;
+    }
+
+    /**
+     * Registers the session's deadline: start time plus time limit plus the grace period.
+     * Scheduling a session again replaces its previous deadline.
+     */
+    public void schedule(UUID sessionId, LocalDateTime startTime, int timeLimitSeconds) {
+        long deadlineMillis = startTime.atZone(clock.getZone()).toInstant().toEpochMilli()
+                + timeLimitSeconds * 1000L + graceMillis;
+        add(new Deadline(sessionId, deadlineMillis, deadlineMillis));
+    }
+
+    /**
+     * Fires the session again after {@code delayMillis}, e.g. when its automatic
+     * submission failed. The session keeps counting as expired in the meantime.
+     */
+    public void retry(UUID sessionId, long delayMillis) {
+        long now = clock.millis();
+        Deadline current = deadlines.get(sessionId);
+        long expiredAt = current != null ? Math.min(current.millis, now) : now;
+        add(new Deadline(sessionId, expiredAt, now + delayMillis));
+    }
+
+    private void add(Deadline deadline) {
+        Deadline previous = deadlines.put(deadline.sessionId, deadline);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pending.add(deadline);
+    }
+
+    public void cancel(UUID sessionId) {
+        Deadline deadline = deadlines.remove(sessionId);
+        if (deadline != null) {
+            deadline.cancelled = true;
+        }
+    }
+
+    /**
+     * Whether the session has a known deadline that has passed. Sessions without a
+     * deadline, e.g. already submitted ones, are never reported as expired.
+     */
+    public boolean isExpired(UUID sessionId) {
+        Deadline deadline = deadlines.get(sessionId);
+        return deadline != null && clock.millis() >= deadline.millis;
+    }
+
+    /**
+     * Processes every tick up to now and returns the sessions whose deadline passed.
+     */
+    public synchronized List<UUID> advance() {
+        long currentTick = clock.millis() / tickMillis;
+
+        List<UUID> expired = new ArrayList<>();
+        // Once a full rotation elapsed every bucket has been visited
+        long lastTick = Math.min(currentTick, nextTick + buckets.length - 1);
+        for (long tick = nextTick; tick <= lastTick; tick++) {
+            // Times this bucket came round since the previous advance
+            long passes = (currentTick - tick) / buckets.length + 1;
+            Iterator<Deadline> it = buckets[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Deadline deadline = it.next();
+                if (deadline.cancelled) {
+                    it.remove();
+                } else if (deadline.rounds < passes) {
+                    it.remove();
+                    expired.add(deadline.sessionId);
+                } else {
+                    deadline.rounds -= passes;
+                }
+            }
+        }
+        nextTick = Math.max(nextTick, currentTick + 1);
+
+        // Placed after the walk, so the rounds count from the next tick on
+        for (Deadline deadline; (deadline = pending.poll()) != null; ) {
+            if (deadline.cancelled) {
+                continue;
+            }
+            long tick = deadline.fireMillis / tickMillis;
+            if (tick <= currentTick) {
+                expired.add(deadline.sessionId);
+            } else {
+                deadline.rounds = (tick - nextTick) / buckets.length;
+                buckets[(int) (tick & mask)].add(deadline);
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    private static final class Deadline {
+        final UUID sessionId;
+        // When the session counts as expired, and when advance() reports it
+        final long millis;
+        final long fireMillis;
+        // Further passes of its bucket before it is due; only the advancing thread uses it
+        long rounds;
+        volatile boolean cancelled;
+
+        Deadline(UUID sessionId, long millis, long fireMillis) {
+            this.sessionId = sessionId;
+            this.millis = millis;
+            this.fireMillis = fireMillis;
+        }
+    }
+}
@@ -1,22 +1,24 @@
 package com.example.backend.service;
 
-import com.example.backend.domain.ExamSession;
 import com.example.backend.domain.SessionStatus;
 import com.example.backend.domain.Student;
 import com.example.backend.dto.AdminStudentViewDto;
 import com.example.backend.dto.DashboardStatsDto;
+import com.example.backend.dto.StudentDirectoryWindow;
 import com.example.backend.exception.NotFoundException;
 import com.example.backend.repository.ExamSessionRepository;
 import com.example.backend.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -25,26 +27,44 @@ public class StudentManagementService {
 
     private final StudentRepository studentRepository;
     private final ExamSessionRepository examSessionRepository;
+    private final DashboardStatsCache dashboardStatsCache;
 
-    @Transactional(readOnly = true)
     public DashboardStatsDto getDashboardStats() {
-        long totalStudents = studentRepository.count();
-
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        long studentsToday = studentRepository.countByCreatedAtAfter(startOfDay);
-
-        long examsCompleted = examSessionRepository
-                .findAll()
-                .stream()
-                .filter(s -> s.getStatus() == SessionStatus.COMPLETED)
-                .count();
-
-        return new DashboardStatsDto(totalStudents, studentsToday, examsCompleted);
+        return dashboardStatsCache.get();
     }
 
+    /**
+     * One page of the directory. Exam statuses of the whole page are resolved with a
+     * single grouped query.
+     */
     @Transactional(readOnly = true)
     public Page<AdminStudentViewDto> getStudentDirectory(Pageable pageable) {
-        return studentRepository.findAll(pageable).map(this::toDto);
+        Page<Student> students = studentRepository.findAll(pageable);
+        Map<UUID, String> statuses = resolveExamStatuses(students.getContent());
+        return students.map(student -> toDto(student, statuses.get(student.getId())));
+    }
+
+    /**
+     * Keyset page of the directory, newest first. Deep pages cost the same as the first
+     * one because no rows are skipped with an offset.
+     */
+    @Transactional(readOnly = true)
+    public StudentDirectoryWindow getStudentDirectoryAfter(LocalDateTime afterCreatedAt, UUID afterId, int size) {
+        PageRequest limit = PageRequest.of(0, size);
+        List<Student> students = afterCreatedAt == null || afterId == null
+                ? studentRepository.findFirstPage(limit)
+                : studentRepository.findPageAfter(afterCreatedAt, afterId, limit);
+
+        Map<UUID, String> statuses = resolveExamStatuses(students);
+        List<AdminStudentViewDto> dtos = students.stream()
+                .map(student -> toDto(student, statuses.get(student.getId())))
+                .toList();
+
+        if (students.size() < size) {
+            return new StudentDirectoryWindow(dtos, null, null);
+        }
+        Student last = students.get(students.size() - 1);
+        return new StudentDirectoryWindow(dtos, last.getCreatedAt(), last.getId());
     }
 
     @Transactional(readOnly = true)
@@ -54,26 +74,32 @@ public class StudentManagementService {
         return student.getMobileNumber();
     }
 
-    private AdminStudentViewDto toDto(Student student) {
-        // Determine exam status from sessions
-        List<ExamSession> sessions = examSessionRepository
-                .findByStudentIdAndStatus(student.getId(), SessionStatus.COMPLETED);
+    private Map<UUID, String> resolveExamStatuses(List<Student> students) {
+        Map<UUID, String> statuses = new HashMap<>();
+        if (students.isEmpty()) {
+            return statuses;
+        }
 
-        String examStatus;
-        if (!sessions.isEmpty()) {
-            examStatus = "COMPLETED";
-        } else {
-            List<ExamSession> active = examSessionRepository
-                    .findByStudentIdAndStatus(student.getId(), SessionStatus.STARTED);
-            examStatus = active.isEmpty() ? "NOT_TAKEN" : "IN_PROGRESS";
+        List<UUID> ids = students.stream().map(Student::getId).toList();
+        for (ExamSessionRepository.StudentStatusRow row : examSessionRepository
+                .findStatusesByStudentIds(ids, List.of(SessionStatus.COMPLETED, SessionStatus.STARTED))) {
+            // COMPLETED wins over IN_PROGRESS
+            if (row.getStatus() == SessionStatus.COMPLETED) {
+                statuses.put(row.getStudentId(), "COMPLETED");
+            } else {
+                statuses.putIfAbsent(row.getStudentId(), "IN_PROGRESS");
+            }
         }
+        return statuses;
+    }
 
+    private AdminStudentViewDto toDto(Student student, String examStatus) {
         return new AdminStudentViewDto(
                 student.getId(),
                 student.getFirstname(),
                 student.getLastname(),
                 student.getCreatedAt(),
-                examStatus
+                examStatus != null ? examStatus : "NOT_TAKEN"
         );
     }
 }
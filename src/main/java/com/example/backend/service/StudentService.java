@@ -1,34 +1,37 @@
 package com.example.backend.service;
 
 import com.example.backend.domain.Student;
-import com.example.backend.domain.ExamSession;
-import com.example.backend.domain.SessionStatus;
-import com.example.backend.dto.ExamResult;
 import com.example.backend.dto.StudentExamHistoryDto;
 import com.example.backend.dto.StudentRegistrationRequest;
 import com.example.backend.dto.StudentRegistrationResponse;
 import com.example.backend.exception.DuplicateMobileException;
-import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.SessionResultRepository;
 import com.example.backend.repository.StudentRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class StudentService {
 
     private final StudentRepository studentRepository;
-    private final ExamSessionRepository examSessionRepository;
-    private final AssessmentService assessmentService;
+    private final SessionResultRepository sessionResultRepository;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final PasswordHashingPool passwordHashingPool;
 
-    @Transactional
+    // Not transactional: the hash is computed before the first query, so no connection
+    // is held while waiting for the hashing pool. The save runs in its own transaction.
     public StudentRegistrationResponse registerStudent(StudentRegistrationRequest request) {
+        String passwordHash = passwordHashingPool.encode(request.getPassword());
+
         // Duplicate mobile check
         studentRepository.findStudentByMobileNumber(request.getMobileNumber())
                 .ifPresent(existing -> {
@@ -39,9 +42,10 @@ public class StudentService {
         student.setFirstname(request.getFirstName());
         student.setLastname(request.getLastName());
         student.setMobileNumber(request.getMobileNumber());
-        student.setPassword(request.getPassword()); // Store password simply
+        student.setPassword(passwordHash);
 
         Student saved = studentRepository.save(student);
+        dashboardStatsCache.studentRegistered();
 
         StudentRegistrationResponse.DataPayload payload = new StudentRegistrationResponse.DataPayload(
                 saved.getId().toString(),
@@ -54,8 +58,17 @@ public class StudentService {
         Student student = studentRepository.findStudentByMobileNumber(request.getMobileNumber())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
-        if (!student.getPassword().equals(request.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
+        String stored = student.getPassword();
+        if (PasswordHashingPool.isEncoded(stored)) {
+            if (!passwordHashingPool.matches(request.getPassword(), stored)) {
+                throw new RuntimeException("Invalid credentials");
+            }
+        } else {
+            // Legacy plaintext password: compare once, then store its hash in the background
+            if (!MessageDigest.isEqual(bytes(stored), bytes(request.getPassword()))) {
+                throw new RuntimeException("Invalid credentials");
+            }
+            upgradePassword(student.getId(), stored, request.getPassword());
         }
 
         StudentRegistrationResponse.DataPayload payload = new StudentRegistrationResponse.DataPayload(
@@ -65,17 +78,28 @@ public class StudentService {
         return new StudentRegistrationResponse(true, payload);
     }
 
+    private void upgradePassword(UUID studentId, String plaintext, String raw) {
+        passwordHashingPool.encodeInBackground(raw)
+                .thenAccept(hash -> studentRepository.replacePassword(studentId, plaintext, hash))
+                .exceptionally(e -> {
+                    // Retried on the next sign-in
+                    log.debug("Password upgrade of student {} deferred: {}", studentId, e.getMessage());
+                    return null;
+                });
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
     public List<StudentExamHistoryDto> getExamHistory(UUID studentId) {
-        return examSessionRepository.findByStudentIdAndStatus(studentId, SessionStatus.COMPLETED).stream()
-                .map(session -> {
-                    ExamResult result = assessmentService.calculateResult(session.getId());
-                    return new StudentExamHistoryDto(
-                            session.getExam().getTitle(),
-                            result.getTotalCorrect(),
-                            result.getTotalQuestions(),
-                            session.getSubmitTime() != null ? session.getSubmitTime() : LocalDateTime.now(),
-                            "/api/v1/reports/" + session.getId() + "/download");
-                })
+        return sessionResultRepository.findRowsByStudentId(studentId).stream()
+                .map(row -> new StudentExamHistoryDto(
+                        row.getExamTitle(),
+                        row.getTotalCorrect(),
+                        row.getTotalQuestions(),
+                        row.getSubmitTime() != null ? row.getSubmitTime() : row.getCompletedAt(),
+                        "/api/v1/reports/" + row.getSessionId() + "/download"))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,35 @@
+package com.example.backend.service;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Version 7 UUIDs (RFC 9562): 48 bits of Unix epoch milliseconds followed by random bits,
+ * so ids made later sort later. The random part comes from {@link SecureRandom} because
+ * session ids appear in URLs.
+ */
+final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {
+    }
+
+    static UUID next() {
+        return at(System.currentTimeMillis());
+    }
+
+    static UUID at(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long msb = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+        long lsb = 0x8000_0000_0000_0000L | ((random[2] & 0x3FL) << 56);
+        for (int i = 3; i < 10; i++) {
+            lsb |= (random[i] & 0xFFL) << (8 * (9 - i));
+        }
+        return new UUID(msb, lsb);
+    }
+}
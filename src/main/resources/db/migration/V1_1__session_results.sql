@@ -0,0 +1,23 @@
+-- Stored grading results of completed sessions (SessionResult). The application stores
+-- the missing results of older completed sessions at startup (SessionResultBackfill).
+-- Databases created by ddl-auto after the table was introduced already have it.
+
+CREATE TABLE IF NOT EXISTS session_results (
+    session_id         uuid         NOT NULL,
+    math_correct       integer      NOT NULL,
+    math_total         integer      NOT NULL,
+    math_percentage    float(53)    NOT NULL,
+    english_correct    integer      NOT NULL,
+    english_total      integer      NOT NULL,
+    english_percentage float(53)    NOT NULL,
+    total_correct      integer      NOT NULL,
+    total_questions    integer      NOT NULL,
+    total_percentage   float(53)    NOT NULL,
+    completed_at       timestamp(6) NOT NULL,
+    revision           integer      NOT NULL,
+    PRIMARY KEY (session_id),
+    CONSTRAINT FKxcfee1hxojsiq5647thnn77l FOREIGN KEY (session_id) REFERENCES exam_sessions
+);
+
+CREATE INDEX IF NOT EXISTS idx_result_completed_at ON session_results (completed_at);
+CREATE INDEX IF NOT EXISTS idx_result_total_percentage ON session_results (total_percentage);
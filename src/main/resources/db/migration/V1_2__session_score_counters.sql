@@ -0,0 +1,30 @@
+-- Running per-subject answer counters on exam_sessions, maintained by saveAnswers.
+-- Existing sessions start from the answers they already hold.
+
+ALTER TABLE exam_sessions
+    ADD COLUMN IF NOT EXISTS math_answered    integer NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS math_correct     integer NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS english_answered integer NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS english_correct  integer NOT NULL DEFAULT 0;
+
+UPDATE exam_sessions s
+SET math_answered    = c.math_answered,
+    math_correct     = c.math_correct,
+    english_answered = c.english_answered,
+    english_correct  = c.english_correct
+FROM (SELECT r.session_id,
+             count(*) FILTER (WHERE q.subject = 'MATH' AND r.chosen_index IS NOT NULL)    AS math_answered,
+             count(*) FILTER (WHERE q.subject = 'MATH' AND r.is_correct)                  AS math_correct,
+             count(*) FILTER (WHERE q.subject = 'ENGLISH' AND r.chosen_index IS NOT NULL) AS english_answered,
+             count(*) FILTER (WHERE q.subject = 'ENGLISH' AND r.is_correct)               AS english_correct
+      FROM student_responses r
+      JOIN questions q ON q.id = r.question_id
+      GROUP BY r.session_id) c
+WHERE c.session_id = s.id
+  AND s.math_answered + s.english_answered = 0;
+
+ALTER TABLE exam_sessions
+    ALTER COLUMN math_answered DROP DEFAULT,
+    ALTER COLUMN math_correct DROP DEFAULT,
+    ALTER COLUMN english_answered DROP DEFAULT,
+    ALTER COLUMN english_correct DROP DEFAULT;
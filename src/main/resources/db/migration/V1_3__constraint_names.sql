@@ -0,0 +1,17 @@
+-- Gives the keys Hibernate named by default or by hash readable names. Later migrations
+-- refer to them by these names (V5 renames pk_student_responses).
+
+ALTER TABLE app_users RENAME CONSTRAINT app_users_pkey TO pk_app_users;
+ALTER TABLE app_users RENAME CONSTRAINT app_users_username_key TO uc_app_users_username;
+ALTER TABLE students RENAME CONSTRAINT students_pkey TO pk_students;
+ALTER TABLE exams RENAME CONSTRAINT exams_pkey TO pk_exams;
+ALTER TABLE questions RENAME CONSTRAINT questions_pkey TO pk_questions;
+ALTER TABLE questions RENAME CONSTRAINT FKrk78bmt53fns7np8casqa3q44 TO fk_questions_exam;
+ALTER TABLE exam_sessions RENAME CONSTRAINT exam_sessions_pkey TO pk_exam_sessions;
+ALTER TABLE exam_sessions RENAME CONSTRAINT FKm60na3ox1i5yx7v4ti1i53h5i TO fk_exam_sessions_exam;
+ALTER TABLE exam_sessions RENAME CONSTRAINT FKcir67k4u8kjk2a8970kjl3epr TO fk_exam_sessions_student;
+ALTER TABLE student_responses RENAME CONSTRAINT student_responses_pkey TO pk_student_responses;
+ALTER TABLE student_responses RENAME CONSTRAINT FK8914ns8magopu8wbjtgbsjjcy TO fk_student_responses_session;
+ALTER TABLE student_responses RENAME CONSTRAINT FK5sstgutiayg4h10omdyn06ksk TO fk_student_responses_question;
+ALTER TABLE session_results RENAME CONSTRAINT session_results_pkey TO pk_session_results;
+ALTER TABLE session_results RENAME CONSTRAINT FKxcfee1hxojsiq5647thnn77l TO fk_session_results_session;
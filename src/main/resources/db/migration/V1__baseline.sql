@@ -0,0 +1,68 @@
+-- Schema generated by Hibernate (ddl-auto=create) from the entities before the migrations
+-- took over, with the constraint names it chose. Databases created that way are baselined
+-- at this version (spring.flyway.baseline-on-migrate) and start at V1.1.
+
+CREATE TABLE app_users (
+    id            uuid         NOT NULL,
+    role          varchar(20)  NOT NULL CHECK ((role IN ('ADMIN', 'MANAGER', 'TEACHER'))),
+    username      varchar(50)  NOT NULL UNIQUE,
+    full_name     varchar(100),
+    password_hash varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE exam_sessions (
+    exam_id     bigint       NOT NULL,
+    start_time  timestamp(6) NOT NULL,
+    submit_time timestamp(6),
+    id          uuid         NOT NULL,
+    student_id  uuid         NOT NULL,
+    status      varchar(255) NOT NULL CHECK ((status IN ('STARTED', 'SUBMITTED', 'COMPLETED', 'EXPIRED'))),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE exams (
+    time_limit_seconds integer      NOT NULL,
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY,
+    title              varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE questions (
+    correct_index integer,
+    exam_id       bigint NOT NULL,
+    id            bigint GENERATED BY DEFAULT AS IDENTITY,
+    content       text,
+    subject       varchar(255) CHECK ((subject IN ('MATH', 'ENGLISH'))),
+    options       jsonb,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE student_responses (
+    chosen_index integer,
+    is_correct   boolean,
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    question_id  bigint NOT NULL,
+    submitted_at timestamp(6),
+    session_id   uuid   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uc_session_question UNIQUE (session_id, question_id)
+);
+
+CREATE TABLE students (
+    created_at    timestamp(6),
+    id            uuid         NOT NULL,
+    firstname     varchar(50)  NOT NULL,
+    lastname      varchar(50)  NOT NULL,
+    mobile_number varchar(255) NOT NULL,
+    password      varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_student_status ON exam_sessions (student_id, status);
+
+ALTER TABLE exam_sessions ADD CONSTRAINT FKm60na3ox1i5yx7v4ti1i53h5i FOREIGN KEY (exam_id) REFERENCES exams;
+ALTER TABLE exam_sessions ADD CONSTRAINT FKcir67k4u8kjk2a8970kjl3epr FOREIGN KEY (student_id) REFERENCES students;
+ALTER TABLE questions ADD CONSTRAINT FKrk78bmt53fns7np8casqa3q44 FOREIGN KEY (exam_id) REFERENCES exams;
+ALTER TABLE student_responses ADD CONSTRAINT FK5sstgutiayg4h10omdyn06ksk FOREIGN KEY (question_id) REFERENCES questions;
+ALTER TABLE student_responses ADD CONSTRAINT FK8914ns8magopu8wbjtgbsjjcy FOREIGN KEY (session_id) REFERENCES exam_sessions;
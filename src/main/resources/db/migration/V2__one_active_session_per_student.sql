@@ -0,0 +1,13 @@
+-- At most one STARTED session per student. ExamService.startExamSession inserts with
+-- ON CONFLICT DO NOTHING and relies on this index to decide concurrent starts.
+
+-- Older databases may hold several running sessions for a student; keep the newest
+UPDATE exam_sessions s
+SET status = 'EXPIRED'
+WHERE s.status = 'STARTED'
+  AND EXISTS (SELECT 1 FROM exam_sessions newer
+              WHERE newer.student_id = s.student_id
+                AND newer.status = 'STARTED'
+                AND (newer.start_time, newer.id) > (s.start_time, s.id));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_session_active_student ON exam_sessions (student_id) WHERE status = 'STARTED';
@@ -0,0 +1,36 @@
+-- Indexes for the repository queries on the exam, answer and directory paths. INCLUDE
+-- columns let the listed queries run as index-only scans; none of them is a column the
+-- per-answer counter updates touch, so those updates stay HOT.
+
+-- ExamSessionRepository.findByStudentIdAndStatus, findActiveSessions (ordered by start
+-- time, id and exam id from the index) and findStatusesByStudentIds
+DROP INDEX idx_student_status;
+CREATE INDEX idx_session_student_status ON exam_sessions (student_id, status, start_time) INCLUDE (id, exam_id);
+
+-- ExamSessionRepository.findByStatusAndStartTimeBefore, updateStatusChunk, countByStatus,
+-- countPerExamByStatus and findDeadlinesByStatus
+CREATE INDEX idx_session_status_start ON exam_sessions (status, start_time) INCLUDE (id, exam_id);
+
+-- ExamSessionRepository.findReportTargets, findIdsByExamIdAndStatus and
+-- findProgressByExamIdAndStatus (ordered by start time); also indexes the exam foreign key
+CREATE INDEX idx_session_exam_status ON exam_sessions (exam_id, status, start_time) INCLUDE (id, student_id);
+
+-- Expiry and deadline scans only ever look at running sessions, a small fraction of the table
+CREATE INDEX idx_session_started_start ON exam_sessions (start_time) INCLUDE (id, exam_id)
+    WHERE status = 'STARTED';
+
+-- StudentResponseRepository lookups by session are served by uc_session_question
+-- (session_id, question_id). Answer columns are deliberately not included: the upsert
+-- rewrites them on every save and would lose HOT updates.
+-- Foreign key index, so deleting a question does not scan every response
+CREATE INDEX idx_response_question ON student_responses (question_id);
+
+-- QuestionRepository.findByExamIdOrderById, findByExamId and countByExamId
+CREATE INDEX idx_question_exam ON questions (exam_id, id);
+
+-- StudentRepository.findStudentByMobileNumber. Not unique: registration checks before
+-- inserting, so older databases may hold duplicates that would fail the migration.
+CREATE INDEX idx_student_mobile ON students (mobile_number);
+
+-- StudentRepository.findFirstPage, findPageAfter (read backwards) and countByCreatedAtAfter
+CREATE INDEX idx_student_created ON students (created_at, id);
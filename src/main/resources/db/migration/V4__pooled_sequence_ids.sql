@@ -0,0 +1,22 @@
+-- Sequence ids for exams, questions and student_responses. Identity columns make
+-- Hibernate insert each row on its own to read the key back; a pooled sequence hands
+-- out 50 ids per round trip and lets the inserts go out as JDBC batches.
+--
+-- Hibernate uses the pooled-lo optimizer: nextval returns the first id of a block of 50.
+-- The column defaults draw from the same sequences, so native inserts (the answer upsert,
+-- set-based seeding) take the first id of a fresh block and never collide with Hibernate.
+
+ALTER TABLE exams ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE exams_seq INCREMENT BY 50 OWNED BY exams.id;
+SELECT setval('exams_seq', COALESCE((SELECT MAX(id) FROM exams), 0) + 1, false);
+ALTER TABLE exams ALTER COLUMN id SET DEFAULT nextval('exams_seq');
+
+ALTER TABLE questions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE questions_seq INCREMENT BY 50 OWNED BY questions.id;
+SELECT setval('questions_seq', COALESCE((SELECT MAX(id) FROM questions), 0) + 1, false);
+ALTER TABLE questions ALTER COLUMN id SET DEFAULT nextval('questions_seq');
+
+ALTER TABLE student_responses ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE student_responses_seq INCREMENT BY 50 OWNED BY student_responses.id;
+SELECT setval('student_responses_seq', COALESCE((SELECT MAX(id) FROM student_responses), 0) + 1, false);
+ALTER TABLE student_responses ALTER COLUMN id SET DEFAULT nextval('student_responses_seq');
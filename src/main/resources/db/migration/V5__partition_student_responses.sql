@@ -0,0 +1,74 @@
+-- student_responses becomes a table partitioned by month of the session's start time.
+-- Every row of a session lands in one partition, so queries that pin session_start to the
+-- session's start prune to that partition, and old months can later be detached whole.
+--
+-- session_start copies exam_sessions.start_time. The partition key has to be part of the
+-- primary key and of uc_session_question; since it is fixed per session, the unique
+-- constraint still means one response per session and question.
+
+ALTER TABLE student_responses RENAME TO student_responses_unpartitioned;
+ALTER TABLE student_responses_unpartitioned RENAME CONSTRAINT pk_student_responses TO pk_student_responses_unpartitioned;
+ALTER TABLE student_responses_unpartitioned RENAME CONSTRAINT uc_session_question TO uc_session_question_unpartitioned;
+ALTER INDEX idx_response_question RENAME TO idx_response_question_unpartitioned;
+ALTER SEQUENCE student_responses_seq OWNED BY NONE;
+
+CREATE TABLE student_responses (
+    id            bigint       NOT NULL DEFAULT nextval('student_responses_seq'),
+    session_id    uuid         NOT NULL,
+    session_start timestamp(6) NOT NULL,
+    question_id   bigint       NOT NULL,
+    chosen_index  integer,
+    is_correct    boolean,
+    submitted_at  timestamp(6),
+    CONSTRAINT pk_student_responses PRIMARY KEY (id, session_start),
+    CONSTRAINT uc_session_question UNIQUE (session_id, question_id, session_start),
+    CONSTRAINT fk_student_responses_session FOREIGN KEY (session_id) REFERENCES exam_sessions,
+    CONSTRAINT fk_student_responses_question FOREIGN KEY (question_id) REFERENCES questions
+) PARTITION BY RANGE (session_start);
+
+ALTER SEQUENCE student_responses_seq OWNED BY student_responses.id;
+CREATE INDEX idx_response_question ON student_responses (question_id);
+
+-- Catches sessions outside every monthly partition (e.g. backdated test data). It stays
+-- empty in normal operation; a month cannot be created while it holds rows for that month.
+CREATE TABLE student_responses_default PARTITION OF student_responses DEFAULT;
+
+-- Creates the partition for the month containing the given day, unless it exists. Called
+-- below and periodically by the application to stay ahead of upcoming exams. Gives up
+-- after lock_timeout rather than queueing answer writes behind its lock on the table.
+CREATE FUNCTION create_student_responses_partition(day date) RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound    date := date_trunc('month', day);
+    upper_bound    date := (date_trunc('month', day) + interval '1 month')::date;
+    partition_name text := 'student_responses_' || to_char(lower_bound, 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('student_responses partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    PERFORM set_config('lock_timeout', '5s', true);
+    EXECUTE format('CREATE TABLE %I PARTITION OF student_responses FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    RETURN true;
+END
+$$;
+
+-- Partitions for every month holding responses, up to three months ahead
+SELECT create_student_responses_partition(month::date)
+FROM generate_series(
+         date_trunc('month', LEAST(now(), (SELECT MIN(s.start_time)
+                                           FROM exam_sessions s
+                                           WHERE EXISTS (SELECT 1 FROM student_responses_unpartitioned r
+                                                         WHERE r.session_id = s.id)))),
+         date_trunc('month', now()) + interval '3 months',
+         interval '1 month') AS month;
+
+INSERT INTO student_responses (id, session_id, session_start, question_id, chosen_index, is_correct, submitted_at)
+SELECT r.id, r.session_id, s.start_time, r.question_id, r.chosen_index, r.is_correct, r.submitted_at
+FROM student_responses_unpartitioned r
+JOIN exam_sessions s ON s.id = r.session_id;
+
+DROP TABLE student_responses_unpartitioned;
+
+ANALYZE student_responses;
@@ -0,0 +1,42 @@
+-- Per-subject running counters and stored scores move from fixed math_/english_ columns
+-- to one jsonb map per row, keyed by subject name: {"MATH": {"correct": 3, "total": 5}}.
+-- A new subject then needs no schema change. Totals stay as columns on session_results
+-- because the result listings filter and sort on them.
+
+ALTER TABLE exam_sessions ADD COLUMN subject_counters jsonb NOT NULL DEFAULT '{}';
+
+UPDATE exam_sessions
+SET subject_counters =
+        CASE WHEN math_answered > 0
+             THEN jsonb_build_object('MATH', jsonb_build_object('correct', math_correct, 'total', math_answered))
+             ELSE '{}' END
+        || CASE WHEN english_answered > 0
+                THEN jsonb_build_object('ENGLISH', jsonb_build_object('correct', english_correct, 'total', english_answered))
+                ELSE '{}' END
+WHERE math_answered > 0 OR english_answered > 0;
+
+ALTER TABLE exam_sessions
+    DROP COLUMN math_answered,
+    DROP COLUMN math_correct,
+    DROP COLUMN english_answered,
+    DROP COLUMN english_correct;
+
+ALTER TABLE session_results ADD COLUMN subject_scores jsonb NOT NULL DEFAULT '{}';
+
+UPDATE session_results
+SET subject_scores =
+        CASE WHEN math_total > 0
+             THEN jsonb_build_object('MATH', jsonb_build_object('correct', math_correct, 'total', math_total))
+             ELSE '{}' END
+        || CASE WHEN english_total > 0
+                THEN jsonb_build_object('ENGLISH', jsonb_build_object('correct', english_correct, 'total', english_total))
+                ELSE '{}' END;
+
+ALTER TABLE session_results
+    ALTER COLUMN subject_scores DROP DEFAULT,
+    DROP COLUMN math_correct,
+    DROP COLUMN math_total,
+    DROP COLUMN math_percentage,
+    DROP COLUMN english_correct,
+    DROP COLUMN english_total,
+    DROP COLUMN english_percentage;
@@ -0,0 +1,5 @@
+-- Answers are inserted by the set-based upsert, whose ids come from the column default.
+-- At INCREMENT BY 50 each of those rows used up a whole block of 50 ids. Nothing batches
+-- student_responses inserts through Hibernate, so the sequence now steps by one.
+
+ALTER SEQUENCE student_responses_seq INCREMENT BY 1;
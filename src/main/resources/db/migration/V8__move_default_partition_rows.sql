@@ -0,0 +1,47 @@
+-- A month cannot be created as a partition while student_responses_default holds rows
+-- for it: CREATE TABLE ... PARTITION OF fails the default partition's check. Such rows
+-- appear when answers arrive before their month was created (the maintenance job was
+-- down, or the session was backdated).
+--
+-- When the default partition holds rows for the month, the month is now built as a plain
+-- table, the rows are moved into it, and it is attached. That happens in the function's
+-- transaction, so readers see each row in exactly one place. Months with no stray rows are
+-- created as before.
+
+CREATE OR REPLACE FUNCTION create_student_responses_partition(day date) RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound    date := date_trunc('month', day);
+    upper_bound    date := (date_trunc('month', day) + interval '1 month')::date;
+    partition_name text := 'student_responses_' || to_char(lower_bound, 'YYYY_MM');
+    moved          bigint;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('student_responses partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    PERFORM set_config('lock_timeout', '5s', true);
+
+    IF NOT EXISTS (SELECT 1 FROM student_responses_default
+                   WHERE session_start >= lower_bound AND session_start < upper_bound) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF student_responses FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, lower_bound, upper_bound);
+        RETURN true;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE student_responses INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH stray AS (DELETE FROM student_responses_default
+                                   WHERE session_start >= %L AND session_start < %L
+                                   RETURNING id, session_id, session_start, question_id, chosen_index,
+                                             is_correct, submitted_at)
+                    INSERT INTO %I (id, session_id, session_start, question_id, chosen_index,
+                                    is_correct, submitted_at)
+                    SELECT * FROM stray',
+                   lower_bound, upper_bound, partition_name);
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    EXECUTE format('ALTER TABLE student_responses ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    RAISE WARNING 'Moved % row(s) of % from student_responses_default', moved, partition_name;
+    RETURN true;
+END
+$$;
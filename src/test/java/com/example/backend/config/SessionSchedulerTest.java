@@ -0,0 +1,87 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.service.DashboardStatsCache;
+import com.example.backend.service.ExamService;
+import com.example.backend.service.ResponsePartitionMaintenance;
+import com.example.backend.service.SessionDeadlineWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionSchedulerTest {
+
+    private static final int CHUNK = 2;
+
+    @Mock private ExamSessionRepository examSessionRepository;
+    @Mock private SessionDeadlineWheel deadlineWheel;
+    @Mock private DashboardStatsCache dashboardStatsCache;
+    @Mock private ExamService examService;
+    @Mock private ResponsePartitionMaintenance responsePartitions;
+    @Mock private TaskScheduler taskScheduler;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SessionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new SessionScheduler(examSessionRepository, deadlineWheel, dashboardStatsCache, examService,
+                responsePartitions, taskScheduler, meterRegistry, 24, CHUNK, 50, 5000);
+    }
+
+    @Test
+    void fullChunksScheduleTheNextOneInsteadOfSleeping() {
+        when(examSessionRepository.updateStatusChunk(eq("STARTED"), any(), eq("EXPIRED"), eq(CHUNK)))
+                .thenReturn(CHUNK, CHUNK, 1);
+
+        scheduler.expireAbandonedSessions();
+        Runnable second = nextChunk();
+        // A run still in progress is not started again
+        scheduler.expireAbandonedSessions();
+        verify(examSessionRepository, times(1)).updateStatusChunk(any(), any(), any(), anyInt());
+
+        second.run();
+        nextChunk().run();
+
+        verify(examSessionRepository, times(3)).updateStatusChunk(any(), any(), any(), anyInt());
+        verifyNoMoreInteractions(taskScheduler);
+        assertEquals(5.0, meterRegistry.get("exam.sessions.expired").counter().count());
+
+        // Finished, so the next run starts
+        scheduler.expireAbandonedSessions();
+        verify(examSessionRepository, times(4)).updateStatusChunk(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void failedAutoSubmitIsRetried() {
+        UUID sessionId = UUID.randomUUID();
+        when(deadlineWheel.advance()).thenReturn(List.of(sessionId));
+        when(examService.autoSubmit(sessionId)).thenThrow(new IllegalStateException("database down"));
+
+        scheduler.submitExpiredSessions();
+
+        verify(deadlineWheel).retry(sessionId, 5000);
+        assertEquals(1.0, meterRegistry.get("exam.deadlines.retries").counter().count());
+    }
+
+    private Runnable nextChunk() {
+        ArgumentCaptor<Runnable> chunk = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, atLeastOnce()).schedule(chunk.capture(), any(Instant.class));
+        clearInvocations(taskScheduler);
+        return chunk.getValue();
+    }
+}
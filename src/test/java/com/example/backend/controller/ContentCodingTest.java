@@ -0,0 +1,26 @@
+package com.example.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCodingTest {
+
+    @Test
+    void acceptsListedOrWildcardGzip() {
+        assertTrue(ContentCoding.acceptsGzip("gzip"));
+        assertTrue(ContentCoding.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ContentCoding.acceptsGzip("br, *"));
+        assertTrue(ContentCoding.acceptsGzip("x-gzip"));
+    }
+
+    @Test
+    void zeroQualityIsRefusal() {
+        assertFalse(ContentCoding.acceptsGzip(null));
+        assertFalse(ContentCoding.acceptsGzip("identity"));
+        assertFalse(ContentCoding.acceptsGzip("gzip;q=0"));
+        assertFalse(ContentCoding.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(ContentCoding.acceptsGzip("br, *;q=0"));
+        assertFalse(ContentCoding.acceptsGzip("gzip;q=bogus"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagsTest {
+
+    @Test
+    void comparesWeaklyAndAcceptsAnyTag() {
+        assertTrue(EntityTags.matches("\"v1\"", "\"v1\""));
+        assertTrue(EntityTags.matches("\"v0\", W/\"v1\"", "\"v1\""));
+        assertTrue(EntityTags.matches("\"v1\"", "W/\"v1\""));
+        assertTrue(EntityTags.matches("*", "\"v1\""));
+    }
+
+    @Test
+    void otherTagsDoNotMatch() {
+        assertFalse(EntityTags.matches(null, "\"v1\""));
+        assertFalse(EntityTags.matches("\"v2\"", "\"v1\""));
+        assertFalse(EntityTags.matches("\"V1\"", "\"v1\""));
+        assertFalse(EntityTags.matches("v1", "\"v1\""));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.backend.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput and p99 of the full student exam flow over HTTP: start, question page,
+ * answer batch, submit, finish and result. {@code -Dbenchmark.examflow} is the number
+ * of concurrent students, each running the flow {@link #ROUNDS} times.
+ *
+ * Run it once per threading mode and compare the printed lines:
+ * <pre>
+ * mvn test -Dtest=ExamFlowBenchmarkTest -Dbenchmark.examflow=400 -Dspring.threads.virtual.enabled=false
+ * mvn test -Dtest=ExamFlowBenchmarkTest -Dbenchmark.examflow=400 -Dspring.threads.virtual.enabled=true
+ * </pre>
+ * Admission control is opened up so the flow measures request handling, not the
+ * configured start rate.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "exam.admission.rate-per-second=1000000",
+        "exam.admission.burst=1000000",
+        "exam.admission.max-concurrent=1000000",
+        "logging.level.org.springframework.web=INFO",
+        "spring.jpa.show-sql=false"
+})
+@EnabledIfSystemProperty(named = "benchmark.examflow", matches = "\\d+")
+public class ExamFlowBenchmarkTest {
+
+    private static final int ROUNDS = 3;
+
+    @LocalServerPort private int port;
+    @Value("${spring.threads.virtual.enabled:false}") private boolean virtualThreads;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private JsonMapper jsonMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private List<UUID> students;
+    private Long examId;
+
+    @BeforeEach
+    void seed() {
+        int count = Integer.getInteger("benchmark.examflow");
+        examId = jdbcTemplate.queryForObject(
+                "SELECT MIN(e.id) FROM exams e WHERE EXISTS (SELECT 1 FROM questions q WHERE q.exam_id = e.id)",
+                Long.class);
+        jdbcTemplate.update("INSERT INTO students (id, firstname, lastname, mobile_number, password, created_at) " +
+                "SELECT gen_random_uuid(), 'Flow', 'Student' || g, '9' || lpad(g::text, 9, '0'), 'secret', now() " +
+                "FROM generate_series(1, ?) g", count);
+        students = jdbcTemplate.queryForList("SELECT id FROM students WHERE firstname = 'Flow'", UUID.class);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        String flowSessions = "SELECT s.id FROM exam_sessions s JOIN students st ON st.id = s.student_id " +
+                "WHERE st.firstname = 'Flow'";
+        jdbcTemplate.update("DELETE FROM session_results WHERE session_id IN (" + flowSessions + ")");
+        jdbcTemplate.update("DELETE FROM student_responses WHERE session_id IN (" + flowSessions + ")");
+        jdbcTemplate.update("DELETE FROM exam_sessions WHERE id IN (" + flowSessions + ")");
+        jdbcTemplate.update("DELETE FROM students WHERE firstname = 'Flow'");
+    }
+
+    @Test
+    void fullExamFlow() throws Exception {
+        // Warm-up pass over a few students
+        for (UUID student : students.subList(0, Math.min(10, students.size()))) {
+            runFlow(student);
+        }
+        latencies.clear();
+
+        ExecutorService clients = Executors.newFixedThreadPool(students.size());
+        long started = System.nanoTime();
+        try {
+            List<Future<Integer>> flows = new ArrayList<>();
+            for (UUID student : students) {
+                flows.add(clients.submit(() -> {
+                    int completed = 0;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        completed += runFlow(student) ? 1 : 0;
+                    }
+                    return completed;
+                }));
+            }
+            int completed = 0;
+            for (Future<Integer> flow : flows) {
+                completed += flow.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("exam flow [%s threads, %d students]: %.1f flows/s, %.0f requests/s, " +
+                            "p50=%.1f ms, p99=%.1f ms, %d/%d flows completed%n",
+                    virtualThreads ? "virtual" : "platform", students.size(),
+                    completed / seconds, sorted.length / seconds,
+                    percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6,
+                    completed, students.size() * ROUNDS);
+            assertEquals(students.size() * ROUNDS, completed);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private boolean runFlow(UUID studentId) throws Exception {
+        JsonNode session = send("POST", "/api/v1/exams/start?studentId=" + studentId + "&examId=" + examId, null);
+        String sessionId = session.get("sessionId").asString();
+
+        JsonNode page = send("GET", "/api/v1/exams/" + sessionId + "/questions?page=0&size=20", null);
+        StringBuilder answers = new StringBuilder("[");
+        for (JsonNode question : page.get("questions")) {
+            if (answers.length() > 1) {
+                answers.append(',');
+            }
+            answers.append("{\"questionId\":").append(question.get("id").asLong())
+                    .append(",\"selectedOptionIndex\":0}");
+        }
+        send("PUT", "/api/v1/exams/" + sessionId + "/answers/batch", answers.append(']').toString());
+
+        send("POST", "/api/v1/exams/" + sessionId + "/submit", null);
+        send("POST", "/api/v1/exams/" + sessionId + "/finish", null);
+        JsonNode result = send("GET", "/api/v1/exams/" + sessionId + "/result", null);
+        return result.has("totalQuestions");
+    }
+
+    private JsonNode send(String method, String path, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "application/json");
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        request.method(method, json == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(json));
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latencies.add(System.nanoTime() - started);
+
+        assertEquals(200, response.statusCode(), method + " " + path + ": " + response.body());
+        return jsonMapper.readTree(response.body());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.ceil(sorted.length * quantile) - 1];
+    }
+}
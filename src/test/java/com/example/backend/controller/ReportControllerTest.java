@@ -0,0 +1,104 @@
+package com.example.backend.controller;
+
+import com.example.backend.domain.ExamSession;
+import com.example.backend.domain.SessionStatus;
+import com.example.backend.domain.Student;
+import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.SessionResultRepository;
+import com.example.backend.service.ReportFileCache;
+import com.example.backend.service.ReportRenderQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportControllerTest {
+
+    private static final UUID SESSION_ID = UUID.fromString("00000000-0000-0000-0000-000000000007");
+    private static final UUID STUDENT_ID = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Mock
+    private ReportRenderQueue reportRenderQueue;
+
+    @Mock
+    private ExamSessionRepository sessionRepository;
+
+    @Mock
+    private SessionResultRepository sessionResultRepository;
+
+    @InjectMocks
+    private ReportController controller;
+
+    @BeforeEach
+    void setUp() {
+        Student student = new Student();
+        student.setId(STUDENT_ID);
+        ExamSession session = new ExamSession();
+        session.setId(SESSION_ID);
+        session.setStudent(student);
+        session.setStatus(SessionStatus.COMPLETED);
+        when(sessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(sessionResultRepository.findRevisionBySessionId(SESSION_ID)).thenReturn(Optional.of(2));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void revalidationIsAnsweredWithoutRendering() throws Exception {
+        ResponseEntity<Resource> response = controller.downloadReport(SESSION_ID, "W/\"" + SESSION_ID + "-2\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"" + SESSION_ID + "-2\"", response.getHeaders().getETag());
+        verifyNoInteractions(reportRenderQueue);
+    }
+
+    @Test
+    void staleTagGetsTheCurrentReport() throws Exception {
+        String etag = ReportFileCache.etag(SESSION_ID, 2);
+        when(reportRenderQueue.getReport(STUDENT_ID, SESSION_ID))
+                .thenReturn(new ReportFileCache.CachedReport(Path.of("report.pdf"), 10, etag));
+
+        ResponseEntity<Resource> response = controller.downloadReport(SESSION_ID, "\"" + SESSION_ID + "-1\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    void reportStaysOnDiskUntilTheResponseIsComplete(@TempDir Path directory) throws Exception {
+        ReportFileCache cache = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 1024);
+        when(reportRenderQueue.getReport(STUDENT_ID, SESSION_ID))
+                .thenReturn(cache.get(SESSION_ID, 2, out -> out.write(new byte[10])));
+
+        ResponseEntity<Resource> response = controller.downloadReport(SESSION_ID, null);
+        // A newer revision drops this one while the body is still being written
+        cache.get(SESSION_ID, 3, out -> out.write(new byte[10])).close();
+
+        assertTrue(response.getBody().exists());
+        ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).requestCompleted();
+        assertFalse(response.getBody().exists());
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.backend.repository;
 
 import com.example.backend.domain.*;
+import jakarta.persistence.Cache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,11 @@ import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +27,8 @@ public class ExamSessionRepositoryTest {
     @Autowired private ExamSessionRepository sessionRepo;
     @Autowired private StudentResponseRepository responseRepo;
     @Autowired private QuestionRepository questionRepo;
+    @Autowired private ExamRepository examRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
 
     // TestEntityManager is the secret sauce for reliable JPA tests
     @Autowired private TestEntityManager entityManager;
@@ -44,6 +51,7 @@ public class ExamSessionRepositoryTest {
         student.setFirstname("John");
         student.setLastname("Doe");
         student.setMobileNumber("1234567890");
+        student.setPassword("secret123");
         entityManager.persist(student);
 
         Exam exam = new Exam();
@@ -125,4 +133,79 @@ public class ExamSessionRepositoryTest {
         long count = responseRepo.countAnsweredBySessionId(sessionId);
         assertThat(count).isEqualTo(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExpiryChunkRespectsLimit() {
+        ExamSession first = sessionRepo.findById(sessionId).orElseThrow();
+        Student other = new Student();
+        other.setFirstname("Jane");
+        other.setLastname("Doe");
+        other.setMobileNumber("0987654321");
+        other.setPassword("secret123");
+        entityManager.persist(other);
+        ExamSession second = new ExamSession();
+        second.setStudent(other);
+        second.setExam(first.getExam());
+        sessionRepo.saveAndFlush(second);
+
+        LocalDateTime cutoff = LocalDateTime.now().plusMinutes(1);
+        assertThat(sessionRepo.updateStatusChunk("STARTED", cutoff, "EXPIRED", 1)).isEqualTo(1);
+        assertThat(sessionRepo.updateStatusChunk("STARTED", cutoff, "EXPIRED", 1)).isEqualTo(1);
+        assertThat(sessionRepo.updateStatusChunk("STARTED", cutoff, "EXPIRED", 1)).isZero();
+
+        entityManager.clear();
+        assertThat(sessionRepo.findByStatusAndStartTimeBefore(SessionStatus.EXPIRED, cutoff)).hasSize(2);
+    }
+
+    @Test
+    void testOnlyOneActiveSessionPerStudent() {
+        ExamSession existing = sessionRepo.findById(sessionId).orElseThrow();
+        UUID studentId = existing.getStudent().getId();
+        Long examId = existing.getExam().getId();
+
+        // The student already has a STARTED session: the insert is a no-op
+        assertThat(sessionRepo.insertIfNoneActive(UUID.randomUUID(), examId, studentId, LocalDateTime.now())).isZero();
+        assertThat(sessionRepo.findActiveSessions(studentId, SessionStatus.STARTED))
+                .extracting(ExamSessionRepository.ActiveSessionRow::getSessionId)
+                .containsExactly(sessionId);
+
+        // Once it is submitted a new one can start
+        existing.setStatus(SessionStatus.SUBMITTED);
+        sessionRepo.saveAndFlush(existing);
+        assertThat(sessionRepo.insertIfNoneActive(UUID.randomUUID(), examId, studentId, LocalDateTime.now())).isEqualTo(1);
+
+        ExamSession duplicate = new ExamSession();
+        duplicate.setStudent(existing.getStudent());
+        duplicate.setExam(existing.getExam());
+        assertThrows(DataIntegrityViolationException.class, () -> sessionRepo.saveAndFlush(duplicate));
+    }
+
+    @Test
+    void testNativeWritesKeepUnrelatedCacheRegions() {
+        // Committed on its own, since rows inserted by the running transaction are never
+        // put in the second-level cache
+        TransactionTemplate separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long examId = separate.execute(status -> {
+            Exam exam = new Exam();
+            exam.setTitle("Cached exam");
+            return examRepo.save(exam).getId();
+        });
+        try {
+            Cache cache = entityManager.getEntityManager().getEntityManagerFactory().getCache();
+            assertThat(cache.contains(Exam.class, examId)).isTrue();
+
+            // Regions hit by a bulk write are cleared when its transaction completes. The
+            // statements match no rows here; issuing them is what counts.
+            separate.executeWithoutResult(status -> {
+                sessionRepo.updateStatusChunk("STARTED", LocalDateTime.of(2000, 1, 1, 0, 0), "EXPIRED", 10);
+                responseRepo.upsertAnswers(UUID.randomUUID(), new Long[]{questionId}, new Integer[]{0},
+                        new Boolean[]{true}, LocalDateTime.now());
+            });
+
+            assertThat(cache.contains(Exam.class, examId)).isTrue();
+        } finally {
+            separate.executeWithoutResult(status -> examRepo.deleteById(examId));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database created by ddl-auto from the baseline entities (baseline-ddl-auto.sql)
+ * the way the application does: baselined at V1, then migrated to the latest version. The
+ * result must match a database migrated from scratch, and keep the data it held.
+ *
+ * Both databases are created next to the test database and dropped afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MigrationUpgradeTest {
+
+    private static final String UPGRADED = "migration_upgrade_test";
+    private static final String FRESH = "migration_fresh_test";
+    private static final String MONTHLY_PARTITION = "^student_responses_[0-9]{4}_[0-9]{2}$";
+    private static final LocalDateTime START = LocalDateTime.of(2026, 2, 3, 9, 0);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}") private String url;
+    @Value("${spring.datasource.username}") private String username;
+    @Value("${spring.datasource.password}") private String password;
+
+    @BeforeEach
+    void createDatabases() {
+        dropDatabases();
+        jdbcTemplate.execute("CREATE DATABASE " + UPGRADED);
+        jdbcTemplate.execute("CREATE DATABASE " + FRESH);
+    }
+
+    @AfterEach
+    void dropDatabases() {
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + UPGRADED + " WITH (FORCE)");
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + FRESH + " WITH (FORCE)");
+    }
+
+    @Test
+    void upgradesABaselineDatabaseToTheLatestSchema() {
+        DataSource upgraded = dataSource(UPGRADED);
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline-ddl-auto.sql")).execute(upgraded);
+        JdbcTemplate old = new JdbcTemplate(upgraded);
+
+        long examId = old.queryForObject(
+                "INSERT INTO exams (title, time_limit_seconds) VALUES ('Baseline exam', 3600) RETURNING id", Long.class);
+        long mathId = old.queryForObject("INSERT INTO questions (exam_id, subject, content, options, correct_index) " +
+                "VALUES (?, 'MATH', 'Q1', '[\"a\", \"b\"]'::jsonb, 0) RETURNING id", Long.class, examId);
+        long englishId = old.queryForObject("INSERT INTO questions (exam_id, subject, content, options, correct_index) " +
+                "VALUES (?, 'ENGLISH', 'Q2', '[\"a\", \"b\"]'::jsonb, 1) RETURNING id", Long.class, examId);
+        UUID studentId = UUID.randomUUID();
+        old.update("INSERT INTO students (id, firstname, lastname, mobile_number, password, created_at) " +
+                "VALUES (?, 'Base', 'Line', '5000000001', 'secret', ?)", studentId, START);
+        UUID running = UUID.randomUUID();
+        old.update("INSERT INTO exam_sessions (id, exam_id, student_id, status, start_time) " +
+                "VALUES (?, ?, ?, 'STARTED', ?)", running, examId, studentId, START);
+        old.update("INSERT INTO student_responses (session_id, question_id, chosen_index, is_correct, submitted_at) " +
+                "VALUES (?, ?, 0, true, ?), (?, ?, 0, false, ?)",
+                running, mathId, START, running, englishId, START);
+
+        Flyway.configure().dataSource(upgraded).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+        DataSource fresh = dataSource(FRESH);
+        Flyway.configure().dataSource(fresh).load().migrate();
+
+        assertThat(schema(upgraded)).isEqualTo(schema(fresh)).isNotEmpty();
+
+        JdbcTemplate migrated = new JdbcTemplate(upgraded);
+        assertThat(migrated.queryForObject("SELECT subject_counters::text FROM exam_sessions WHERE id = ?",
+                String.class, running))
+                .isEqualTo("{\"MATH\": {\"total\": 1, \"correct\": 1}, \"ENGLISH\": {\"total\": 1, \"correct\": 0}}");
+        assertThat(migrated.queryForList("SELECT tableoid::regclass::text FROM student_responses " +
+                "WHERE session_id = ? AND session_start = ?", String.class, running, START))
+                .containsExactly("student_responses_2026_02", "student_responses_2026_02");
+        assertThat(migrated.queryForObject("INSERT INTO exams (title, time_limit_seconds) " +
+                "VALUES ('After upgrade', 60) RETURNING id", Long.class)).isGreaterThan(examId);
+    }
+
+    private DataSource dataSource(String database) {
+        return new DriverManagerDataSource(url.substring(0, url.lastIndexOf('/') + 1) + database, username, password);
+    }
+
+    /**
+     * Columns, constraints, indexes, sequences and functions of the public schema, one line
+     * each. Monthly partitions are left out since they depend on the data each database held.
+     */
+    private static List<String> schema(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList("""
+                SELECT 'column ' || table_name || '.' || column_name || ' ' || data_type || ' '
+                       || is_nullable || ' ' || coalesce(column_default, '')
+                FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+                  AND table_name !~ ?
+                UNION ALL
+                SELECT 'constraint ' || conrelid::regclass || ' ' || conname || ' ' || pg_get_constraintdef(oid)
+                FROM pg_constraint
+                WHERE connamespace = 'public'::regnamespace AND conrelid::regclass::text !~ ?
+                UNION ALL
+                SELECT 'index ' || indexdef
+                FROM pg_indexes
+                WHERE schemaname = 'public' AND tablename <> 'flyway_schema_history' AND tablename !~ ?
+                UNION ALL
+                SELECT 'sequence ' || sequencename || ' ' || increment_by
+                FROM pg_sequences WHERE schemaname = 'public'
+                UNION ALL
+                SELECT 'function ' || proname || ' ' || md5(prosrc)
+                FROM pg_proc WHERE pronamespace = 'public'::regnamespace
+                ORDER BY 1
+                """, String.class, MONTHLY_PARTITION, MONTHLY_PARTITION, MONTHLY_PARTITION);
+    }
+}
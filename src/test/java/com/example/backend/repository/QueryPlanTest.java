@@ -0,0 +1,308 @@
+package com.example.backend.repository;
+
+import com.example.backend.domain.SessionStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the query plans of the hot repository methods against the indexes in the
+ * migrations. Each method is called once to capture the SQL Hibernate sends, which is
+ * then prepared and explained with the same arguments.
+ *
+ * The test transaction seeds a few thousand sessions over the last months and analyzes
+ * the tables, so the planner sees realistic selectivity; it is rolled back afterwards.
+ * Sequential scans are disabled, so each plan shows the best index for the query rather
+ * than a scan of tables that still fit in a few pages. Indexes of student_responses
+ * partitions are reported under the name of the partitioned index they belong to.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.backend.repository.QueryPlanTest$SqlRecorder")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final String MOBILE = "7000000001";
+    private static final Pattern PARTITION_SCAN = Pattern.compile("on (student_responses_\\w+).*$", Pattern.MULTILINE);
+
+    @Autowired private ExamSessionRepository examSessionRepository;
+    @Autowired private StudentResponseRepository studentResponseRepository;
+    @Autowired private QuestionRepository questionRepository;
+    @Autowired private StudentRepository studentRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long examId;
+    private Long questionId;
+    private UUID studentId;
+    private UUID sessionId;
+    private final Map<String, String> partitionIndexes = new HashMap<>();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO exams (title, time_limit_seconds) " +
+                "SELECT 'Plan exam ' || g, 3600 FROM generate_series(1, 10) g");
+        jdbcTemplate.update("INSERT INTO questions (exam_id, subject, content, options, correct_index) " +
+                "SELECT e.id, CASE WHEN g % 2 = 0 THEN 'MATH' ELSE 'ENGLISH' END, 'Question ' || g, " +
+                "'[\"a\", \"b\", \"c\", \"d\"]'::jsonb, g % 4 " +
+                "FROM exams e CROSS JOIN generate_series(1, 100) g WHERE e.title LIKE 'Plan exam %'");
+        jdbcTemplate.update("INSERT INTO students (id, firstname, lastname, mobile_number, password, created_at) " +
+                "SELECT gen_random_uuid(), 'Plan', 'Student' || g, '7' || lpad(g::text, 9, '0'), 'secret', " +
+                "now() - g * interval '1 minute' FROM generate_series(1, 2000) g");
+        // Three sessions per student, one in ten of them still running
+        jdbcTemplate.update("""
+                WITH e AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM exams
+                           WHERE title LIKE 'Plan exam %'),
+                     s AS (SELECT id, row_number() OVER (ORDER BY id) AS n FROM students
+                           WHERE firstname = 'Plan')
+                INSERT INTO exam_sessions (id, exam_id, student_id, status, start_time)
+                SELECT gen_random_uuid(), e.id, s.id,
+                       CASE WHEN k = 0 AND s.n % 10 = 0 THEN 'STARTED' ELSE 'COMPLETED' END,
+                       now() - (s.n + k) * interval '1 hour'
+                FROM s CROSS JOIN generate_series(0, 2) k JOIN e ON e.n = (s.n + k) % 10
+                """);
+        jdbcTemplate.queryForList("SELECT create_student_responses_partition((now() - g * interval '1 month')::date) " +
+                "FROM generate_series(1, 4) g", Boolean.class);
+        jdbcTemplate.update("""
+                INSERT INTO student_responses (session_id, session_start, question_id, chosen_index, is_correct,
+                                               submitted_at)
+                SELECT es.id, es.start_time, q.id, 0, q.correct_index = 0, es.start_time
+                FROM exam_sessions es
+                JOIN students st ON st.id = es.student_id AND st.firstname = 'Plan'
+                CROSS JOIN LATERAL (SELECT id, correct_index FROM questions
+                                    WHERE exam_id = es.exam_id ORDER BY id LIMIT 10) q
+                """);
+        jdbcTemplate.execute("ANALYZE exams, questions, students, exam_sessions, student_responses");
+
+        examId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM exams WHERE title LIKE 'Plan exam %'", Long.class);
+        questionId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM questions WHERE exam_id = ?", Long.class, examId);
+        studentId = jdbcTemplate.queryForObject(
+                "SELECT id FROM students WHERE mobile_number = ?", UUID.class, MOBILE);
+        sessionId = jdbcTemplate.queryForObject(
+                "SELECT MIN(s.id::text)::uuid FROM exam_sessions s JOIN student_responses r ON r.session_id = s.id " +
+                        "WHERE s.student_id = ?", UUID.class, studentId);
+
+        jdbcTemplate.query("""
+                SELECT c.relname AS partition_index, p.relname AS parent_index
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE c.relkind = 'i'
+                """, row -> {
+            partitionIndexes.put(row.getString("partition_index"), row.getString("parent_index"));
+        });
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void examSessionsByStudent() {
+        assertThat(plan(() -> examSessionRepository.findByStudentIdAndStatus(studentId, SessionStatus.STARTED),
+                studentId, "STARTED"))
+                .satisfies(usesIndex("idx_session_student_status", "uq_session_active_student"));
+        assertThat(plan(() -> examSessionRepository.findActiveSessions(studentId, SessionStatus.STARTED),
+                studentId, "STARTED"))
+                .satisfies(usesIndex("idx_session_student_status", "uq_session_active_student"));
+        assertThat(plan(() -> examSessionRepository.findStatusesByStudentIds(
+                        List.of(studentId), List.of(SessionStatus.COMPLETED, SessionStatus.STARTED)),
+                studentId, "COMPLETED", "STARTED"))
+                .satisfies(usesIndex("idx_session_student_status"));
+    }
+
+    @Test
+    void examSessionsByStatus() {
+        assertThat(plan(() -> examSessionRepository.updateStatusChunk("STARTED", CUTOFF, "EXPIRED", 100),
+                "STARTED", CUTOFF, 100, "EXPIRED"))
+                .satisfies(usesIndex("idx_session_started_start"));
+        // Either partial index confines the scan to running sessions
+        assertThat(plan(() -> examSessionRepository.findDeadlinesByStatus(SessionStatus.STARTED), "STARTED"))
+                .satisfies(usesIndex("idx_session_started_start", "uq_session_active_student"));
+        assertThat(plan(() -> examSessionRepository.findByStatusAndStartTimeBefore(SessionStatus.COMPLETED, CUTOFF),
+                "COMPLETED", CUTOFF))
+                .satisfies(usesIndex("idx_session_status_start"));
+        assertThat(plan(() -> examSessionRepository.countByStatus(SessionStatus.COMPLETED), "COMPLETED"))
+                .satisfies(usesIndex("idx_session_status_start"));
+        assertThat(plan(() -> examSessionRepository.countPerExamByStatus(SessionStatus.COMPLETED), "COMPLETED"))
+                .satisfies(usesIndex("idx_session_status_start", "idx_session_exam_status"));
+    }
+
+    @Test
+    void examSessionsByExam() {
+        assertThat(plan(() -> examSessionRepository.findReportTargets(examId, SessionStatus.COMPLETED),
+                examId, "COMPLETED"))
+                .satisfies(usesIndex("idx_session_exam_status"));
+        assertThat(plan(() -> examSessionRepository.findIdsByExamIdAndStatus(examId, SessionStatus.COMPLETED),
+                examId, "COMPLETED"))
+                .satisfies(usesIndex("idx_session_exam_status"));
+        assertThat(plan(() -> examSessionRepository.findProgressByExamIdAndStatus(examId, SessionStatus.STARTED),
+                examId, "STARTED"))
+                .satisfies(usesIndex("idx_session_exam_status", "idx_session_started_start"));
+    }
+
+    @Test
+    void studentResponsesBySession() {
+        assertThat(plan(() -> studentResponseRepository.findBySessionId(sessionId), sessionId, sessionId))
+                .satisfies(usesIndex("uc_session_question"));
+        assertThat(plan(() -> studentResponseRepository.findBySessionIdAndQuestionId(sessionId, questionId),
+                sessionId, questionId, sessionId))
+                .satisfies(usesIndex("uc_session_question"));
+        assertThat(plan(() -> studentResponseRepository.countAnsweredBySessionId(sessionId), sessionId, sessionId))
+                .satisfies(usesIndex("uc_session_question"));
+        assertThat(plan(() -> studentResponseRepository.findChoicesBySessionId(sessionId), sessionId, sessionId))
+                .satisfies(usesIndex("uc_session_question"));
+        assertThat(plan(() -> studentResponseRepository.scoreBySubject(sessionId), sessionId, sessionId))
+                .satisfies(usesIndex("uc_session_question"));
+        assertThat(plan(() -> studentResponseRepository.findStoredAnswers(sessionId, List.of(questionId, questionId + 1)),
+                sessionId, questionId, questionId + 1, sessionId))
+                .satisfies(usesIndex("uc_session_question"));
+    }
+
+    @Test
+    void studentResponsesPruneToSessionPartition() {
+        assertThat(executedPlan(() -> studentResponseRepository.findBySessionId(sessionId), sessionId, sessionId))
+                .satisfies(scansOnePartition());
+        assertThat(executedPlan(() -> studentResponseRepository.findBySessionIdAndQuestionId(sessionId, questionId),
+                sessionId, questionId, sessionId))
+                .satisfies(scansOnePartition());
+        assertThat(executedPlan(() -> studentResponseRepository.countAnsweredBySessionId(sessionId),
+                sessionId, sessionId))
+                .satisfies(scansOnePartition());
+        assertThat(executedPlan(() -> studentResponseRepository.findChoicesBySessionId(sessionId),
+                sessionId, sessionId))
+                .satisfies(scansOnePartition());
+        assertThat(executedPlan(() -> studentResponseRepository.scoreBySubject(sessionId), sessionId, sessionId))
+                .satisfies(scansOnePartition());
+        assertThat(executedPlan(() -> studentResponseRepository.findStoredAnswers(sessionId,
+                        List.of(questionId, questionId + 1)),
+                sessionId, questionId, questionId + 1, sessionId))
+                .satisfies(scansOnePartition());
+    }
+
+    @Test
+    void questionsByExam() {
+        assertThat(plan(() -> questionRepository.findByExamIdOrderById(examId), examId))
+                .satisfies(usesIndex("idx_question_exam"));
+        assertThat(plan(() -> questionRepository.countByExamId(examId), examId))
+                .satisfies(usesIndex("idx_question_exam"));
+        assertThat(plan(() -> questionRepository.findByExamId(examId, PageRequest.of(0, 20)), examId, 20))
+                .satisfies(usesIndex("idx_question_exam"));
+    }
+
+    @Test
+    void studentDirectory() {
+        assertThat(plan(() -> studentRepository.findStudentByMobileNumber(MOBILE), MOBILE))
+                .satisfies(usesIndex("idx_student_mobile"));
+        assertThat(plan(() -> studentRepository.countByCreatedAtAfter(CUTOFF), CUTOFF))
+                .satisfies(usesIndex("idx_student_created"));
+        assertThat(plan(() -> studentRepository.findFirstPage(PageRequest.of(0, 50)), 50))
+                .satisfies(usesIndex("idx_student_created"));
+        assertThat(plan(() -> studentRepository.findPageAfter(CUTOFF, studentId, PageRequest.of(0, 50)),
+                CUTOFF, CUTOFF, studentId, 50))
+                .satisfies(usesIndex("idx_student_created"));
+    }
+
+    /**
+     * Runs the repository call, then explains the first statement it sent with the given
+     * parameter values, in the order their placeholders appear in the SQL.
+     */
+    private String plan(Runnable call, Object... parameters) {
+        return explain("", call, parameters);
+    }
+
+    /**
+     * Like {@link #plan}, but executes the statement, so partitions skipped at run time
+     * show up as never executed.
+     */
+    private String executedPlan(Runnable call, Object... parameters) {
+        return explain("(ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) ", call, parameters);
+    }
+
+    private String explain(String options, Runnable call, Object... parameters) {
+        SqlRecorder.statements.clear();
+        call.run();
+        assertThat(SqlRecorder.statements).as("statements sent").isNotEmpty();
+        String sql = SqlRecorder.statements.get(0);
+
+        StringBuilder numbered = new StringBuilder();
+        int placeholder = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++placeholder);
+            } else {
+                numbered.append(c);
+            }
+        }
+        assertThat(placeholder).as("placeholders in %s", sql).isEqualTo(parameters.length);
+
+        String arguments = Arrays.stream(parameters)
+                .map(QueryPlanTest::literal)
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("PREPARE plan_probe AS " + numbered);
+        try {
+            String plan = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN " + options + "EXECUTE plan_probe" + (parameters.length > 0 ? "(" + arguments + ")" : ""),
+                    String.class));
+            for (Map.Entry<String, String> index : partitionIndexes.entrySet()) {
+                plan = plan.replaceAll("\\b" + index.getKey() + "\\b", index.getValue());
+            }
+            return sql + "\n" + plan;
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE plan_probe");
+        }
+    }
+
+    private static Consumer<String> usesIndex(String... indexes) {
+        return plan -> assertThat(indexes)
+                .as("index used by plan:%n%s", plan)
+                .anyMatch(index -> Pattern.compile("(using|on) " + index + "\\b").matcher(plan).find());
+    }
+
+    private static Consumer<String> scansOnePartition() {
+        return plan -> assertThat(PARTITION_SCAN.matcher(plan).results()
+                .filter(scan -> !scan.group().contains("never executed"))
+                .map(scan -> scan.group(1))
+                .distinct())
+                .as("student_responses partitions scanned by plan:%n%s", plan)
+                .hasSize(1);
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
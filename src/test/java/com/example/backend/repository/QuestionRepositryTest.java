@@ -3,6 +3,9 @@ package com.example.backend.repository;
 import com.example.backend.domain.Exam;
 import com.example.backend.domain.Question;
 import com.example.backend.domain.Subject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +14,14 @@ import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class QuestionRepositoryTest {
 
@@ -26,6 +31,9 @@ class QuestionRepositoryTest {
     @Autowired
     private ExamRepository examRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Exam sharedExam;
 
     @BeforeEach
@@ -69,6 +77,29 @@ class QuestionRepositoryTest {
         assertThat(count).isEqualTo(2);
     }
 
+    // Without a test transaction: entities written by the running transaction are never
+    // put in the second-level cache, so the seed data has to be committed first
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testQuestionsAreReadFromTheSecondLevelCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long questionId = questionRepository.findByExamIdOrderById(sharedExam.getId()).get(0).getId();
+        statistics.clear();
+        try {
+            assertThat(questionRepository.findById(questionId)).isPresent();
+            assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+
+            // Queries are not cached: they always read the table
+            assertThat(questionRepository.countByExamId(sharedExam.getId())).isEqualTo(2);
+            assertThat(statistics.getQueryCacheHitCount()).isZero();
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            questionRepository.deleteAll(questionRepository.findByExamIdOrderById(sharedExam.getId()));
+            examRepository.deleteById(sharedExam.getId());
+        }
+    }
+
     @Test
     void testPaginationUsingPageable() {
         Page<Question> firstPage = questionRepository.findByExamId(
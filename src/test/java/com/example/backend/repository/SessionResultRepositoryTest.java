@@ -0,0 +1,135 @@
+package com.example.backend.repository;
+
+import com.example.backend.domain.*;
+import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class SessionResultRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    @Autowired private SessionResultRepository resultRepo;
+    @Autowired private TestEntityManager entityManager;
+
+    private Exam algebra;
+    private Exam grammar;
+
+    @BeforeEach
+    void setUp() {
+        algebra = exam("Algebra");
+        grammar = exam("Grammar");
+
+        graded(algebra, "Adams", BASE, 8);
+        graded(algebra, "Baker", BASE.plusDays(1), 4);
+        graded(grammar, "Clark", BASE.plusDays(2), 10);
+        graded(grammar, "Davis", BASE.plusDays(3), 6);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void everyFilterIsOptional() {
+        Page<SessionResultRepository.ResultRow> page = resultRepo.findRows(algebra.getId(), null, null, null, null,
+                PageRequest.of(0, 10, Sort.by("completedAt")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(SessionResultRepository.ResultRow::getLastName)
+                .containsExactly("Adams", "Baker");
+    }
+
+    @Test
+    void filtersByDateRangeAndScoreBand() {
+        Page<SessionResultRepository.ResultRow> page = resultRepo.findRows(null,
+                BASE.plusDays(1), BASE.plusDays(3), 50.0, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "totalPercentage")));
+
+        assertThat(page.getContent()).extracting(SessionResultRepository.ResultRow::getLastName)
+                .containsExactly("Clark");
+        assertThat(page.getContent().get(0).getExamTitle()).isEqualTo("Grammar");
+        assertThat(page.getContent().get(0).getTotalPercentage()).isEqualTo(100.0);
+    }
+
+    @Test
+    void pagesAndSortsByAlias() {
+        Page<SessionResultRepository.ResultRow> page = resultRepo.findRows(null, null, BASE.plusDays(4), null, 90.0,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "lastName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(SessionResultRepository.ResultRow::getLastName)
+                .containsExactly("Adams");
+    }
+
+    @Test
+    void unpagedReturnsEveryRowAndBreaksTiesBySessionId() {
+        Page<SessionResultRepository.ResultRow> all = resultRepo.findRows(null, BASE, BASE.plusDays(4), null, null,
+                Pageable.unpaged(Sort.by(Sort.Direction.ASC, "examTitle").and(Sort.by("sessionId"))));
+
+        assertThat(all.getTotalElements()).isEqualTo(4);
+        assertThat(all.getContent()).extracting(SessionResultRepository.ResultRow::getExamTitle)
+                .containsExactly("Algebra", "Algebra", "Grammar", "Grammar");
+        // Postgres orders uuids by their bytes, which is the order of their hex strings
+        assertThat(all.getContent().subList(0, 2)).extracting(row -> row.getSessionId().toString()).isSorted();
+        assertThat(all.getContent().subList(2, 4)).extracting(row -> row.getSessionId().toString()).isSorted();
+    }
+
+    @Test
+    void streamsMatchingRowsOldestFirst() {
+        try (Stream<SessionResultRepository.ResultRow> rows = resultRepo.streamRows(null, BASE.plusDays(1), null)) {
+            assertThat(rows.map(SessionResultRepository.ResultRow::getLastName))
+                    .containsExactly("Baker", "Clark", "Davis");
+        }
+        try (Stream<SessionResultRepository.ResultRow> rows = resultRepo.streamRows(grammar.getId(), null, BASE.plusDays(3))) {
+            assertThat(rows.map(SessionResultRepository.ResultRow::getLastName)).containsExactly("Clark");
+        }
+    }
+
+    private Exam exam(String title) {
+        Exam exam = new Exam();
+        exam.setTitle(title);
+        exam.setTimeLimitSeconds(3600);
+        return entityManager.persist(exam);
+    }
+
+    private void graded(Exam exam, String lastName, LocalDateTime completedAt, int correct) {
+        Student student = new Student();
+        student.setFirstname("Result");
+        student.setLastname(lastName);
+        student.setMobileNumber("55" + Math.abs(lastName.hashCode() % 100_000_000));
+        student.setPassword("secret123");
+        entityManager.persist(student);
+
+        ExamSession session = new ExamSession();
+        session.setExam(exam);
+        session.setStudent(student);
+        session.setStatus(SessionStatus.COMPLETED);
+        session.setStartTime(completedAt.minusHours(1));
+        session.setSubmitTime(completedAt);
+        entityManager.persist(session);
+
+        SessionResult result = new SessionResult();
+        result.setSession(session);
+        result.setCompletedAt(completedAt);
+        result.apply(new ExamResult(Map.of(Subject.MATH, new SubjectScore(correct, 10)), completedAt));
+        entityManager.persist(result);
+    }
+}
@@ -46,6 +46,7 @@ class StudentRepositoryTest {
         johnStudent.setFirstname("John");
         johnStudent.setLastname("Doe");
         johnStudent.setMobileNumber("1234567890");
+        johnStudent.setPassword("secret123");
         // saveAndFlush so that @CreationTimestamp is populated
         johnStudent = studentRepository.saveAndFlush(johnStudent);
     }
@@ -77,6 +78,7 @@ class StudentRepositoryTest {
         student.setFirstname("Bob");
         student.setLastname("Brown");
         student.setMobileNumber("123"); // invalid
+        student.setPassword("secret123");
 
         assertThrows(ConstraintViolationException.class, () -> {
             studentRepository.saveAndFlush(student);
@@ -90,6 +92,7 @@ class StudentRepositoryTest {
         student.setFirstname(""); // blank
         student.setLastname("");  // blank
         student.setMobileNumber("1234567890");
+        student.setPassword("secret123");
 
         assertThrows(ConstraintViolationException.class, () -> {
             studentRepository.saveAndFlush(student);
@@ -33,6 +33,7 @@ public class StudentResponseRepositoryTest {
         student.setFirstname("John");
         student.setLastname("Doe");
         student.setMobileNumber("1234567890");
+        student.setPassword("secret123");
         student = studentRepo.save(student);
 
         // 2. Create and Save Exam (Required for Question and Session)
@@ -0,0 +1,180 @@
+package com.example.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-for-the-filter-test-256bit-long";
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtTokenProvider provider = new JwtTokenProvider(meterRegistry, clock, SECRET, 60_000, 100);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(provider);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiesEachTokenOnce() throws Exception {
+        String token = provider.generateToken("teacher1", "TEACHER");
+
+        Authentication first = authenticate("Bearer " + token);
+        Authentication second = authenticate("Bearer " + token);
+
+        assertEquals("teacher1", first.getName());
+        assertEquals("ROLE_TEACHER", first.getAuthorities().iterator().next().getAuthority());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(1.0, meterRegistry.counter("security.jwt.cache", "result", "miss").count());
+        assertEquals(1.0, meterRegistry.counter("security.jwt.cache", "result", "hit").count());
+    }
+
+    @Test
+    void cachedTokenStopsWorkingAtExpiry() throws Exception {
+        String token = provider.generateToken("teacher1", "TEACHER");
+        assertNotNull(authenticate("Bearer " + token));
+
+        clock.advanceSeconds(61);
+        assertNull(authenticate("Bearer " + token));
+        assertEquals(0, provider.cachedTokens());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() throws Exception {
+        String token = provider.generateToken("teacher1", "TEACHER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(authenticate("Bearer " + tampered));
+        assertNull(authenticate("Bearer " + tampered));
+        assertEquals(0, provider.cachedTokens());
+    }
+
+    @Test
+    void requestsWithoutBearerTokenSkipTheFilter() throws Exception {
+        assertNull(authenticate(null));
+        assertNull(authenticate("Basic dXNlcjpwYXNz"));
+        assertEquals(0.0, meterRegistry.counter("security.jwt.cache", "result", "miss").count());
+    }
+
+    @Test
+    void cacheStaysBounded() {
+        JwtTokenProvider small = new JwtTokenProvider(new SimpleMeterRegistry(), clock, SECRET, 60_000, 10);
+        for (int i = 0; i < 25; i++) {
+            assertTrue(small.verify(small.generateToken("user" + i, "TEACHER")).isPresent());
+        }
+        assertEquals(10, small.cachedTokens(), "A full cache evicts single entries, it is not cleared");
+    }
+
+    @Test
+    void zoneViewOfTheClockSharesItsTime() {
+        Clock paris = clock.withZone(ZoneId.of("Europe/Paris"));
+        clock.advanceSeconds(5);
+
+        assertEquals(ZoneId.of("Europe/Paris"), paris.getZone());
+        assertEquals(clock.instant(), paris.instant());
+    }
+
+    /**
+     * Filter overhead per request with a cached token against the previous behaviour of
+     * parsing and verifying the token three times. Opt-in: -Dbenchmark.jwt=<rounds>.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.jwt", matches = "\\d+")
+    void cachedTokenIsCheaperThanParsing() throws Exception {
+        String header = "Bearer " + provider.generateToken("teacher1", "TEACHER");
+        int rounds = Integer.getInteger("benchmark.jwt");
+        for (int i = 0; i < 2_000; i++) {
+            authenticate(header);
+            tripleParse(header.substring(7));
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            authenticate(header);
+        }
+        long cachedNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            tripleParse(header.substring(7));
+        }
+        long tripleNanos = System.nanoTime() - started;
+
+        assertTrue(cachedNanos < tripleNanos,
+                "cached " + cachedNanos / rounds + " ns/request, three parses " + tripleNanos / rounds + " ns/request");
+    }
+
+    private void tripleParse(String token) {
+        provider.getUsername(token);
+        provider.getRole(token);
+        provider.getUsername(token);
+    }
+
+    private Authentication authenticate(String authorization) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/teacher/results");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest(), "The chain should always continue");
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicReference<Instant> now;
+        private final ZoneId zone;
+
+        MutableClock(Instant now) {
+            this(new AtomicReference<>(now), ZoneOffset.UTC);
+        }
+
+        // Zone views share the instant, so advancing one advances them all
+        private MutableClock(AtomicReference<Instant> now, ZoneId zone) {
+            this.now = now;
+            this.zone = zone;
+        }
+
+        void advanceSeconds(long seconds) {
+            now.updateAndGet(instant -> instant.plusSeconds(seconds));
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(now, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+
+        @Override
+        public long millis() {
+            return now.get().toEpochMilli();
+        }
+    }
+}
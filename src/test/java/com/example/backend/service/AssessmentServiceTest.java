@@ -2,7 +2,12 @@ package com.example.backend.service;
 
 import com.example.backend.domain.*;
 import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
 import com.example.backend.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,7 +20,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 public class AssessmentServiceTest {
 
@@ -37,6 +42,12 @@ public class AssessmentServiceTest {
     @Autowired
     private StudentRepository studentRepo;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private ExamSession session;
     private Question math1, math2, english1, english2;
 
@@ -60,6 +71,7 @@ public class AssessmentServiceTest {
         student.setFirstname("John");
         student.setLastname("Doe");
         student.setMobileNumber("1234567890"); //10-digit valid
+        student.setPassword("secret123");
         student = studentRepo.save(student);
 
         // Create ExamSession linked to Student and Exam
@@ -149,6 +161,21 @@ public class AssessmentServiceTest {
             assertEquals(50.0, result.getTotalPercentage(), 0.01, "Total percentage should be 50%");
         }
 
+        @Test
+        void testGradingIsSingleStatement() {
+            entityManager.flush();
+            entityManager.clear();
+            Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            stats.clear();
+
+            ExamResult result = assessmentService.calculateResult(session.getId());
+
+            assertEquals(1, stats.getPrepareStatementCount(), "Grading should be one GROUP BY query");
+            assertEquals(2, result.getTotalCorrect());
+            assertEquals(new SubjectScore(1, 2), result.getSubjects().get(Subject.MATH));
+            assertEquals(new SubjectScore(1, 2), result.getSubjects().get(Subject.ENGLISH));
+        }
+
         @Test
         void testIdempotency() {
             ExamResult first = assessmentService.calculateResult(session.getId());
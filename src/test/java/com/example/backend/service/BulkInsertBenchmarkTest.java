@@ -0,0 +1,138 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.Exam;
+import com.example.backend.domain.ExamSession;
+import com.example.backend.domain.Question;
+import com.example.backend.domain.Student;
+import com.example.backend.domain.StudentResponse;
+import com.example.backend.domain.Subject;
+import com.example.backend.dto.QuestionCreationDto;
+import com.example.backend.repository.ExamRepository;
+import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.QuestionRepository;
+import com.example.backend.repository.StudentRepository;
+import com.example.backend.repository.StudentResponseRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert throughput of question import and of persisting answers through JPA, with
+ * JDBC batching on and, as the baseline, with a batch size of one, which is what the
+ * identity ids forced before. {@code -Dbenchmark.inserts} is the number of rows per run
+ * (e.g. 10000). Everything is rolled back afterwards.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark.inserts", matches = "\\d+")
+public class BulkInsertBenchmarkTest {
+
+    @Autowired private ExamAuthoringService examAuthoringService;
+    @Autowired private ExamRepository examRepo;
+    @Autowired private QuestionRepository questionRepo;
+    @Autowired private StudentRepository studentRepo;
+    @Autowired private ExamSessionRepository sessionRepo;
+    @Autowired private StudentResponseRepository responseRepo;
+    @Autowired private EntityManager entityManager;
+
+    private int rows;
+    private Exam exam;
+
+    @BeforeEach
+    void seed() {
+        rows = Integer.getInteger("benchmark.inserts");
+        exam = new Exam();
+        exam.setTitle("Bulk insert exam");
+        exam.setTimeLimitSeconds(3600);
+        exam = examRepo.save(exam);
+        entityManager.flush();
+    }
+
+    @Test
+    void questionImport() {
+        List<QuestionCreationDto> dtos = IntStream.range(0, rows).mapToObj(i -> {
+            QuestionCreationDto dto = new QuestionCreationDto();
+            dto.setSubject(i % 2 == 0 ? Subject.MATH : Subject.ENGLISH);
+            dto.setContent("Bulk question " + i);
+            dto.setOptions(List.of("A", "B", "C", "D"));
+            dto.setCorrectIndex(i % 4);
+            return dto;
+        }).toList();
+
+        // Warm-up
+        timed(50, () -> examAuthoringService.importQuestions(exam.getId(), dtos.subList(0, 100)));
+
+        double unbatched = rows / timed(1, () -> examAuthoringService.importQuestions(exam.getId(), dtos));
+        double batched = rows / timed(50, () -> examAuthoringService.importQuestions(exam.getId(), dtos));
+
+        System.out.printf("question import (%d rows): batched %.0f rows/s, unbatched %.0f rows/s (%.1fx)%n",
+                rows, batched, unbatched, batched / unbatched);
+        assertTrue(batched > unbatched);
+    }
+
+    @Test
+    void answerPersist() {
+        List<Question> questions = IntStream.range(0, rows).mapToObj(i -> {
+            Question question = new Question();
+            question.setExam(exam);
+            question.setSubject(Subject.MATH);
+            question.setContent("Answered question " + i);
+            question.setOptions(List.of("A", "B"));
+            question.setCorrectIndex(0);
+            return question;
+        }).toList();
+        questionRepo.saveAll(questions);
+        entityManager.flush();
+
+        double unbatched = rows / timed(1, () -> responseRepo.saveAll(responses(questions, "Unbatched")));
+        double batched = rows / timed(50, () -> responseRepo.saveAll(responses(questions, "Batched")));
+
+        System.out.printf("answer persist (%d rows): batched %.0f rows/s, unbatched %.0f rows/s (%.1fx)%n",
+                rows, batched, unbatched, batched / unbatched);
+        assertTrue(batched > unbatched);
+    }
+
+    private List<StudentResponse> responses(List<Question> questions, String name) {
+        Student student = new Student();
+        student.setFirstname(name);
+        student.setLastname("Bulk");
+        student.setMobileNumber("5550002222");
+        student.setPassword("secret123");
+        ExamSession session = new ExamSession();
+        session.setExam(exam);
+        session.setStudent(studentRepo.save(student));
+        sessionRepo.save(session);
+
+        LocalDateTime now = LocalDateTime.now();
+        return questions.stream()
+                .map(question -> new StudentResponse(null, session, null, question, 0, true, now))
+                .toList();
+    }
+
+    /** Seconds taken by the work and the flush that sends it, at the given JDBC batch size. */
+    private double timed(int batchSize, Runnable work) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        try {
+            long started = System.nanoTime();
+            work.run();
+            entityManager.flush();
+            return (System.nanoTime() - started) / 1e9;
+        } finally {
+            session.setJdbcBatchSize(null);
+            entityManager.clear();
+            exam = examRepo.findById(exam.getId()).orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.SessionStatus;
+import com.example.backend.dto.DashboardStatsDto;
+import com.example.backend.repository.ExamSessionRepository;
+import com.example.backend.repository.SessionResultRepository;
+import com.example.backend.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStatsCacheTest {
+
+    @Mock private StudentRepository studentRepository;
+    @Mock private ExamSessionRepository examSessionRepository;
+    @Mock private SessionResultRepository sessionResultRepository;
+
+    private DashboardStatsCache statsCache;
+
+    @BeforeEach
+    void setUp() {
+        statsCache = new DashboardStatsCache(studentRepository, examSessionRepository, sessionResultRepository);
+    }
+
+    @Test
+    void lifecycleEventsMoveCountersWithoutQueries() {
+        statsCache.studentRegistered();
+        statsCache.sessionStarted();
+        statsCache.sessionStarted();
+        statsCache.sessionSubmitted();
+        statsCache.sessionCompleted(7L);
+
+        DashboardStatsDto stats = statsCache.get();
+        assertEquals(1, stats.getTotalStudents());
+        assertEquals(1, stats.getStudentsRegisteredToday());
+        assertEquals(1, stats.getSessionsInProgress());
+        assertEquals(1, stats.getExamsCompleted());
+        assertEquals(1, stats.getExamsCompletedToday());
+        assertEquals(Map.of(7L, 1L), stats.getCompletionsByExam());
+        verifyNoInteractions(studentRepository, examSessionRepository, sessionResultRepository);
+    }
+
+    @Test
+    void reconcileReplacesDriftedCounters() {
+        statsCache.sessionStarted();
+        statsCache.sessionCompleted(7L);
+
+        ExamSessionRepository.ExamCountRow row = mock(ExamSessionRepository.ExamCountRow.class);
+        when(row.getExamId()).thenReturn(3L);
+        when(row.getSessions()).thenReturn(4L);
+        when(studentRepository.count()).thenReturn(10L);
+        when(studentRepository.countByCreatedAtAfter(any())).thenReturn(2L);
+        when(sessionResultRepository.countByCompletedAtAfter(any())).thenReturn(1L);
+        when(examSessionRepository.countByStatus(SessionStatus.STARTED)).thenReturn(0L);
+        when(examSessionRepository.countByStatus(SessionStatus.COMPLETED)).thenReturn(4L);
+        when(examSessionRepository.countPerExamByStatus(SessionStatus.COMPLETED)).thenReturn(List.of(row));
+
+        statsCache.reconcile();
+
+        DashboardStatsDto stats = statsCache.get();
+        assertEquals(10, stats.getTotalStudents());
+        assertEquals(2, stats.getStudentsRegisteredToday());
+        assertEquals(0, stats.getSessionsInProgress());
+        assertEquals(4, stats.getExamsCompleted());
+        assertEquals(1, stats.getExamsCompletedToday());
+        assertEquals(Map.of(3L, 4L), stats.getCompletionsByExam());
+    }
+}
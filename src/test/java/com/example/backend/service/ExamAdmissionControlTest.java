@@ -0,0 +1,137 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ExamSessionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamAdmissionControlTest {
+
+    private static final Long EXAM_ID = 1L;
+
+    @Mock private ExamService examService;
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private ExamAdmissionControl control(double rate, int burst) {
+        lenient().when(examService.startExamSession(any(), eq(EXAM_ID))).thenReturn(mock(ExamSessionResponse.class));
+        return new ExamAdmissionControl(examService, new SimpleMeterRegistry(), nanos::get, rate, burst, 4, 30);
+    }
+
+    @Test
+    void burstIsAdmittedAndTheRestWaitInOrder() {
+        ExamAdmissionControl control = control(10, 3);
+
+        List<UUID> students = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            students.add(UUID.randomUUID());
+        }
+        for (int i = 0; i < 3; i++) {
+            assertTrue(control.start(students.get(i), EXAM_ID).admitted());
+        }
+        for (int i = 3; i < 8; i++) {
+            ExamAdmissionControl.Admission waiting = control.start(students.get(i), EXAM_ID);
+            assertFalse(waiting.admitted());
+            assertEquals(i - 2, waiting.waitingRoom().position());
+            assertTrue(waiting.waitingRoom().retryAfterSeconds() >= 1);
+        }
+        assertEquals(5, control.waitingCount());
+        verify(examService, times(3)).startExamSession(any(), eq(EXAM_ID));
+
+        // 200 ms at 10/s releases the first two tickets
+        advanceMillis(200);
+        assertFalse(control.start(students.get(5), EXAM_ID).admitted());
+        assertTrue(control.start(students.get(4), EXAM_ID).admitted());
+        assertTrue(control.start(students.get(3), EXAM_ID).admitted());
+        assertEquals(1, control.start(students.get(5), EXAM_ID).waitingRoom().position());
+    }
+
+    @Test
+    void newArrivalsQueueBehindWaitingStudents() {
+        ExamAdmissionControl control = control(10, 1);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID late = UUID.randomUUID();
+
+        assertTrue(control.start(first, EXAM_ID).admitted());
+        assertFalse(control.start(second, EXAM_ID).admitted());
+
+        // The next token belongs to the waiting student, even if the late one asks first
+        advanceMillis(100);
+        assertFalse(control.start(late, EXAM_ID).admitted());
+        assertTrue(control.start(second, EXAM_ID).admitted());
+    }
+
+    @Test
+    void abandonedTicketsAreSkipped() {
+        ExamAdmissionControl control = control(1, 1);
+        UUID first = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        UUID patient = UUID.randomUUID();
+
+        assertTrue(control.start(first, EXAM_ID).admitted());
+        assertFalse(control.start(gone, EXAM_ID).admitted());
+        assertFalse(control.start(patient, EXAM_ID).admitted());
+
+        // Nobody polls for longer than the ticket TTL, then only the patient student returns
+        advanceMillis(31_000);
+        assertTrue(control.start(patient, EXAM_ID).admitted());
+        assertEquals(0, control.waitingCount());
+    }
+
+    @Test
+    void saturatedStartsAreQueuedWithoutBlocking() throws Exception {
+        CountDownLatch starting = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(examService.startExamSession(any(), eq(EXAM_ID))).thenAnswer(inv -> {
+            starting.countDown();
+            assertTrue(finish.await(5, TimeUnit.SECONDS));
+            return mock(ExamSessionResponse.class);
+        });
+        ExamAdmissionControl control = new ExamAdmissionControl(examService, new SimpleMeterRegistry(), nanos::get,
+                10, 5, 1, 30);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ExamAdmissionControl.Admission> first = pool.submit(() -> control.start(UUID.randomUUID(), EXAM_ID));
+            assertTrue(starting.await(5, TimeUnit.SECONDS));
+
+            UUID second = UUID.randomUUID();
+            long started = System.nanoTime();
+            ExamAdmissionControl.Admission queued = control.start(second, EXAM_ID);
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1), "Must not wait for a slot");
+            assertFalse(queued.admitted());
+            assertEquals(1, queued.waitingRoom().position());
+            assertEquals(1, queued.waitingRoom().retryAfterSeconds());
+
+            finish.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS).admitted());
+            // The token was handed back, so the retry goes straight in
+            assertTrue(control.start(second, EXAM_ID).admitted());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
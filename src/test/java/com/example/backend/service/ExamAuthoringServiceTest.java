@@ -0,0 +1,98 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.Exam;
+import com.example.backend.domain.Question;
+import com.example.backend.domain.Subject;
+import com.example.backend.dto.QuestionCreationDto;
+import com.example.backend.repository.ExamRepository;
+import com.example.backend.repository.QuestionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ExamAuthoringServiceTest {
+
+    private static final int QUESTION_COUNT = 120;
+
+    @Autowired private ExamAuthoringService examAuthoringService;
+    @Autowired private ExamRepository examRepo;
+    @Autowired private QuestionRepository questionRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Long examId;
+
+    @BeforeEach
+    void setup() {
+        Exam exam = new Exam();
+        exam.setTitle("Import Exam");
+        exam.setTimeLimitSeconds(3600);
+        examId = examRepo.save(exam).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void importBatchesInserts() {
+        Statistics stats = statistics();
+
+        assertEquals(QUESTION_COUNT, examAuthoringService.importQuestions(examId, dtos(QUESTION_COUNT)));
+        entityManager.flush();
+
+        // exam read, one sequence call per 50 ids and one batch per 50 rows
+        long statements = stats.getPrepareStatementCount();
+        assertTrue(statements <= 1 + 2 * ((QUESTION_COUNT + 49) / 50),
+                "Import should send batches, not one insert per question: " + statements);
+        assertEquals(QUESTION_COUNT, questionRepo.countByExamId(examId));
+    }
+
+    @Test
+    void nativeInsertsShareTheSequence() {
+        examAuthoringService.importQuestions(examId, dtos(3));
+        entityManager.flush();
+
+        // Set-based SQL draws from the column default while Hibernate holds a block of ids
+        jdbcTemplate.update("INSERT INTO questions (exam_id, subject, content, options, correct_index) " +
+                "VALUES (?, 'MATH', 'Native', '[\"A\",\"B\"]'::jsonb, 0)", examId);
+        examAuthoringService.importQuestions(examId, dtos(60));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ids = questionRepo.findByExamIdOrderById(examId).stream()
+                .map(Question::getId).toList();
+        assertEquals(64, ids.size());
+        assertEquals(64, ids.stream().distinct().count());
+    }
+
+    private List<QuestionCreationDto> dtos(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            QuestionCreationDto dto = new QuestionCreationDto();
+            dto.setSubject(i % 2 == 0 ? Subject.MATH : Subject.ENGLISH);
+            dto.setContent("Imported " + i);
+            dto.setOptions(List.of("A", "B", "C", "D"));
+            dto.setCorrectIndex(i % 4);
+            return dto;
+        }).toList();
+    }
+
+    private Statistics statistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.Exam;
+import com.example.backend.domain.Question;
+import com.example.backend.domain.Subject;
+import com.example.backend.repository.ExamRepository;
+import com.example.backend.repository.QuestionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamContentCacheTest {
+
+    @Mock
+    private ExamRepository examRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void missLoadsOnceThenHits() {
+        ExamContentCache cache = cache(32, 20000);
+        stubExams(3);
+
+        ExamSnapshot first = cache.get(1L);
+        ExamSnapshot second = cache.get(1L);
+
+        assertSame(first, second);
+        assertEquals(3, first.questionCount());
+        verify(examRepository, times(1)).findById(1L);
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsServedButNotCached() {
+        ExamContentCache cache = cache(32, 20000);
+        when(examRepository.findById(1L)).thenAnswer(inv -> Optional.of(exam(1L)));
+        when(questionRepository.findByExamIdOrderById(1L))
+                .thenAnswer(inv -> {
+                    // Authoring commits while the old content is being read
+                    cache.invalidate(1L);
+                    return questions(1L, 2);
+                })
+                .thenAnswer(inv -> questions(1L, 3));
+
+        assertEquals(2, cache.get(1L).questionCount());
+        assertEquals(3, cache.get(1L).questionCount());
+        assertEquals(3, cache.get(1L).questionCount());
+
+        verify(questionRepository, times(2)).findByExamIdOrderById(1L);
+    }
+
+    @Test
+    void invalidateDropsCachedSnapshot() {
+        ExamContentCache cache = cache(32, 20000);
+        stubExams(3);
+        List<Long> evicted = new ArrayList<>();
+        cache.addEvictionListener(evicted::add);
+
+        ExamSnapshot before = cache.get(1L);
+        cache.invalidate(1L);
+        ExamSnapshot after = cache.get(1L);
+
+        assertNotSame(before, after);
+        assertTrue(after.version() > before.version());
+        assertEquals(List.of(1L), evicted);
+        verify(examRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ExamContentCache cache = cache(32, 20000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(examRepository.findById(1L)).thenAnswer(inv -> Optional.of(exam(1L)));
+        when(questionRepository.findByExamIdOrderById(1L)).thenAnswer(inv -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return questions(1L, 3);
+        });
+
+        int callers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ExamSnapshot>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get(1L)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> cache.get(1L)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (requests("miss") < callers && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            ExamSnapshot first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<ExamSnapshot> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(questionRepository, times(1)).findByExamIdOrderById(1L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedExamBeyondExamLimit() {
+        ExamContentCache cache = cache(2, 20000);
+        stubExams(1);
+        List<Long> evicted = new ArrayList<>();
+        cache.addEvictionListener(evicted::add);
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+
+        assertEquals(List.of(2L), evicted);
+        cache.get(1L);
+        cache.get(3L);
+        verify(examRepository, times(1)).findById(1L);
+        verify(examRepository, times(1)).findById(3L);
+        cache.get(2L);
+        verify(examRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedExamBeyondQuestionLimit() {
+        ExamContentCache cache = cache(32, 5);
+        stubExams(3);
+        List<Long> evicted = new ArrayList<>();
+        cache.addEvictionListener(evicted::add);
+
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals(List.of(1L), evicted);
+        assertEquals(3.0, meterRegistry.get("exam.content.cache.questions").gauge().value());
+        assertEquals(1.0, meterRegistry.get("exam.content.cache.exams").gauge().value());
+    }
+
+    @Test
+    void keepsSingleExamLargerThanQuestionLimit() {
+        ExamContentCache cache = cache(32, 2);
+        stubExams(3);
+
+        ExamSnapshot snapshot = cache.get(1L);
+
+        assertSame(snapshot, cache.get(1L));
+        verify(examRepository, times(1)).findById(1L);
+    }
+
+    private ExamContentCache cache(int maxExams, int maxQuestions) {
+        return new ExamContentCache(examRepository, questionRepository, meterRegistry, maxExams, maxQuestions);
+    }
+
+    private void stubExams(int questionsPerExam) {
+        when(examRepository.findById(anyLong())).thenAnswer(inv -> Optional.of(exam(inv.getArgument(0))));
+        when(questionRepository.findByExamIdOrderById(anyLong()))
+                .thenAnswer(inv -> questions(inv.getArgument(0), questionsPerExam));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("exam.content.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static Exam exam(Long id) {
+        Exam exam = new Exam();
+        exam.setId(id);
+        exam.setTitle("Exam " + id);
+        exam.setTimeLimitSeconds(600);
+        return exam;
+    }
+
+    private static List<Question> questions(Long examId, int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(i -> {
+            Question question = new Question();
+            question.setId(examId * 100 + i);
+            question.setSubject(Subject.MATH);
+            question.setContent("Question " + i);
+            question.setOptions(List.of("a", "b", "c"));
+            question.setCorrectIndex(0);
+            return question;
+        }).toList();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.*;
+import com.example.backend.dto.AnswerBatchResponse;
+import com.example.backend.dto.AnswerDto;
+import com.example.backend.dto.AnswerOutcome;
+import com.example.backend.dto.CounterCheckDto;
+import com.example.backend.dto.SubjectScore;
+import com.example.backend.exception.BadRequestException;
+import com.example.backend.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ExamServiceTest {
+
+    private static final int QUESTION_COUNT = 20;
+
+    @Autowired private ExamService examService;
+    @Autowired private StudentResponseRepository responseRepo;
+    @Autowired private ExamSessionRepository sessionRepo;
+    @Autowired private QuestionRepository questionRepo;
+    @Autowired private ExamRepository examRepo;
+    @Autowired private StudentRepository studentRepo;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ExamContentCache examContentCache;
+    @Autowired private SessionResultRepository resultRepo;
+    @Autowired private AssessmentService assessmentService;
+
+    private ExamSession session;
+    private final List<Question> questions = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        Exam exam = new Exam();
+        exam.setTitle("Autosave Exam");
+        exam.setTimeLimitSeconds(3600);
+        exam = examRepo.save(exam);
+
+        Student student = new Student();
+        student.setFirstname("Jane");
+        student.setLastname("Roe");
+        student.setMobileNumber("5550001111");
+        student.setPassword("secret123");
+        student = studentRepo.save(student);
+
+        session = new ExamSession();
+        session.setExam(exam);
+        session.setStudent(student);
+        session = sessionRepo.save(session);
+
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            Question q = new Question();
+            q.setExam(exam);
+            q.setSubject(i % 2 == 0 ? Subject.MATH : Subject.ENGLISH);
+            q.setContent("Q" + i);
+            q.setOptions(List.of("A", "B", "C", "D"));
+            q.setCorrectIndex(i % 4);
+            questions.add(questionRepo.save(q));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void batchSaveUsesConstantNumberOfStatements() {
+        examContentCache.get(session.getExam().getId());
+        Statistics stats = statistics();
+
+        examService.saveAnswers(session.getId(), answers(0));
+        entityManager.flush();
+
+        // session lock, stored-answer read, upsert and counter update; the answer key comes from the content cache
+        assertEquals(4, stats.getPrepareStatementCount(), "Batch save should not scale with the number of answers");
+        assertEquals(QUESTION_COUNT, responseRepo.countAnsweredBySessionId(session.getId()));
+    }
+
+    @Test
+    void repeatedSaveUpdatesExistingRows() {
+        examService.saveAnswers(session.getId(), answers(0));
+        examService.saveAnswers(session.getId(), answers(1));
+        entityManager.clear();
+
+        List<StudentResponse> responses = responseRepo.findBySessionId(session.getId());
+        assertEquals(QUESTION_COUNT, responses.size());
+        assertTrue(responses.stream().allMatch(r -> r.getChosenIndex() == 1));
+    }
+
+    @Test
+    void batchReportsPerAnswerOutcomes() {
+        Question first = questions.get(0);
+        List<AnswerDto> batch = List.of(
+                answer(first.getId(), 3),
+                answer(-1L, 0),
+                answer(first.getId(), first.getCorrectIndex()));
+
+        AnswerBatchResponse response = examService.saveAnswersBatch(session.getId(), batch);
+
+        assertEquals(1, response.savedCount());
+        assertEquals(1, response.rejectedCount());
+        assertEquals(AnswerOutcome.Status.SUPERSEDED, response.outcomes().get(0).status());
+        assertEquals(AnswerOutcome.Status.REJECTED, response.outcomes().get(1).status());
+        assertEquals(AnswerOutcome.Status.SAVED, response.outcomes().get(2).status());
+
+        entityManager.clear();
+        StudentResponse saved = responseRepo.findBySessionIdAndQuestionId(session.getId(), first.getId()).orElseThrow();
+        assertEquals(first.getCorrectIndex(), saved.getChosenIndex());
+        assertTrue(saved.getIsCorrect());
+    }
+
+    @Test
+    void strictSaveRejectsWholeBatch() {
+        List<AnswerDto> batch = List.of(answer(questions.get(0).getId(), 0), answer(-1L, 0));
+
+        assertThrows(BadRequestException.class, () -> examService.saveAnswers(session.getId(), batch));
+        assertEquals(0, responseRepo.countAnsweredBySessionId(session.getId()));
+    }
+
+    @Test
+    void finishStoresResultThatLaterReadsReuse() {
+        Question first = questions.get(0);
+        examService.saveAnswers(session.getId(), List.of(answer(first.getId(), first.getCorrectIndex())));
+        examService.submitExam(session.getId());
+        examService.finishExam(session.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        SessionResult stored = resultRepo.findById(session.getId()).orElseThrow();
+        assertEquals(1, stored.getTotalCorrect());
+        assertEquals(0, stored.getRevision());
+
+        // Answer key change is not visible until results are recomputed
+        Question changed = questionRepo.findById(first.getId()).orElseThrow();
+        changed.setCorrectIndex((first.getCorrectIndex() + 1) % 4);
+        questionRepo.saveAndFlush(changed);
+        examContentCache.invalidate(changed.getExam().getId());
+
+        assertEquals(1, examService.getExamResult(session.getId()).getTotalCorrect());
+        assertEquals(1, assessmentService.recomputeResults(changed.getExam().getId()));
+        assertEquals(0, examService.getExamResult(session.getId()).getTotalCorrect());
+        assertEquals(1, resultRepo.findById(session.getId()).orElseThrow().getRevision());
+    }
+
+    @Test
+    void runningCountersFollowChangedAnswers() {
+        examService.saveAnswers(session.getId(), answers(0));
+        examService.saveAnswers(session.getId(), answers(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        ExamSession saved = sessionRepo.findById(session.getId()).orElseThrow();
+        assertEquals(new SubjectScore(0, QUESTION_COUNT / 2), saved.getSubjectCounters().get(Subject.MATH));
+        assertEquals(new SubjectScore(QUESTION_COUNT / 4, QUESTION_COUNT / 2),
+                saved.getSubjectCounters().get(Subject.ENGLISH));
+        assertTrue(assessmentService.checkCounters(session.getId(), false).consistent());
+
+        assertEquals(QUESTION_COUNT, examService.submitExam(session.getId()).answeredCount());
+    }
+
+    @Test
+    void counterCheckRepairsDrift() {
+        examService.saveAnswers(session.getId(), answers(0));
+        entityManager.flush();
+        ExamSession managed = sessionRepo.findById(session.getId()).orElseThrow();
+        managed.applyAnswerDelta(Subject.MATH, 0, -managed.getSubjectCounters().get(Subject.MATH).correct());
+        entityManager.flush();
+
+        CounterCheckDto check = assessmentService.checkCounters(session.getId(), true);
+        assertFalse(check.consistent());
+        assertTrue(check.repaired());
+        assertEquals(QUESTION_COUNT / 4, managed.getSubjectCounters().get(Subject.MATH).correct());
+        assertTrue(assessmentService.checkCounters(session.getId(), false).consistent());
+    }
+
+    private List<AnswerDto> answers(int chosenIndex) {
+        return questions.stream().map(q -> answer(q.getId(), chosenIndex)).toList();
+    }
+
+    private AnswerDto answer(Long questionId, int chosenIndex) {
+        AnswerDto dto = new AnswerDto();
+        dto.setQuestionId(questionId);
+        dto.setSelectedOptionIndex(chosenIndex);
+        return dto;
+    }
+
+    private Statistics statistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
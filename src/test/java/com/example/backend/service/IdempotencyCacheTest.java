@@ -0,0 +1,136 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final IdempotencyCache cache = new IdempotencyCache(new SimpleMeterRegistry(), 600, 100, 5_000);
+
+    @Test
+    void repeatedKeyReplaysTheFirstResult() {
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = cache.execute("submit", sessionId, "k1", () -> "result-" + runs.incrementAndGet());
+        String retry = cache.execute("submit", sessionId, "k1", () -> "result-" + runs.incrementAndGet());
+
+        assertEquals("result-1", first);
+        assertEquals(first, retry);
+        assertEquals(1, runs.get());
+
+        // Same key on another target or operation, or no key at all, is a new request
+        cache.execute("submit", UUID.randomUUID(), "k1", runs::incrementAndGet);
+        cache.execute("finish", sessionId, "k1", runs::incrementAndGet);
+        cache.execute("submit", sessionId, null, runs::incrementAndGet);
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void failuresAndUnrememberedResultsRunAgain() {
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> cache.execute("finish", sessionId, "k", () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(2, cache.execute("finish", sessionId, "k", runs::incrementAndGet));
+
+        cache.execute("start", sessionId, "w", runs::incrementAndGet, result -> false);
+        cache.execute("start", sessionId, "w", runs::incrementAndGet, result -> false);
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstRequest() throws Exception {
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                cache.execute("submit", sessionId, "k", () -> {
+                    running.countDown();
+                    await(release);
+                    return runs.incrementAndGet();
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> retry = CompletableFuture.supplyAsync(() ->
+                cache.execute("submit", sessionId, "k", runs::incrementAndGet));
+
+        release.countDown();
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void retryOfAFirstRequestThatDiedWithAnErrorRunsAgain() throws Exception {
+        UUID sessionId = UUID.randomUUID();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                cache.execute("submit", sessionId, "k", () -> {
+                    running.countDown();
+                    await(release);
+                    throw new StackOverflowError();
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> retry = CompletableFuture.supplyAsync(() ->
+                cache.execute("submit", sessionId, "k", () -> 2));
+
+        release.countDown();
+        assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, retry.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void retryGivesUpWaitingAfterTheBound() throws Exception {
+        IdempotencyCache impatient = new IdempotencyCache(new SimpleMeterRegistry(), 600, 100, 50);
+        UUID sessionId = UUID.randomUUID();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+                impatient.execute("finish", sessionId, "k", () -> {
+                    running.countDown();
+                    await(release);
+                    return "done";
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        try {
+            assertThrows(ConflictException.class, () -> impatient.execute("finish", sessionId, "k", () -> "again"));
+        } finally {
+            release.countDown();
+        }
+        assertEquals("done", first.get(5, TimeUnit.SECONDS));
+        assertEquals("done", impatient.execute("finish", sessionId, "k", () -> "again"));
+    }
+
+    @Test
+    void entriesAreBounded() {
+        for (int i = 0; i < 250; i++) {
+            cache.execute("submit", i, "k", () -> "ok");
+        }
+        assertTrue(cache.size() <= 100);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
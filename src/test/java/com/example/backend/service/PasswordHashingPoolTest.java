@@ -0,0 +1,240 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingPoolTest {
+
+    private PasswordHashingPool pool;
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void encodesAndVerifiesOffTheCallerThread() {
+        pool = new PasswordHashingPool(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 2, 10, 5000);
+
+        String hash = pool.encode("secret");
+
+        assertTrue(PasswordHashingPool.isEncoded(hash));
+        assertFalse(PasswordHashingPool.isEncoded("secret"));
+        assertTrue(pool.matches("secret", hash));
+        assertFalse(pool.matches("wrong", hash));
+    }
+
+    @Test
+    void rejectsFastWhenTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pool = new PasswordHashingPool(new BlockingEncoder(release, new CopyOnWriteArrayList<>()),
+                new SimpleMeterRegistry(), 1, 2, 5000);
+
+        // One running, two queued
+        pool.encodeInBackground("a");
+        waitForQueue(0);
+        pool.encodeInBackground("b");
+        pool.encodeInBackground("c");
+
+        long started = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> pool.matches("d", "hash"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1000);
+        assertTrue(pool.encodeInBackground("e").isCompletedExceptionally());
+
+        release.countDown();
+    }
+
+    @Test
+    void concurrentSubmitsNeverQueueMoreThanTheCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pool = new PasswordHashingPool(new BlockingEncoder(release, new CopyOnWriteArrayList<>()),
+                new SimpleMeterRegistry(), 1, 5, 5000);
+        pool.encodeInBackground("blocker");
+        waitForQueue(0);
+
+        ExecutorService submitters = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<CompletableFuture<String>>> submitted = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String raw = "p" + i;
+                submitted.add(submitters.submit(() -> {
+                    go.await();
+                    return pool.encodeInBackground(raw);
+                }));
+            }
+            go.countDown();
+
+            int accepted = 0;
+            for (Future<CompletableFuture<String>> future : submitted) {
+                if (!future.get(5, TimeUnit.SECONDS).isCompletedExceptionally()) {
+                    accepted++;
+                }
+            }
+            assertEquals(5, accepted);
+            assertEquals(5, pool.queued());
+        } finally {
+            submitters.shutdownNow();
+            release.countDown();
+        }
+    }
+
+    @Test
+    void errorsInTheEncoderFailTheCallerAtOnce() {
+        PasswordEncoder broken = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                throw new LinkageError("encoder class missing");
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                throw new LinkageError("encoder class missing");
+            }
+        };
+        pool = new PasswordHashingPool(broken, new SimpleMeterRegistry(), 1, 10, 5000);
+
+        long started = System.nanoTime();
+        assertThrows(LinkageError.class, () -> pool.encode("secret"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1000);
+    }
+
+    @Test
+    void signInsRunBeforeBackgroundUpgrades() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        pool = new PasswordHashingPool(new BlockingEncoder(release, order), new SimpleMeterRegistry(), 1, 10, 5000);
+
+        CompletableFuture<String> blocker = pool.encodeInBackground("blocker");
+        waitForQueue(0);
+        CompletableFuture<String> upgrade = pool.encodeInBackground("upgrade");
+        CompletableFuture<Boolean> login = CompletableFuture.supplyAsync(() -> pool.matches("login", "hash"));
+        waitForQueue(2);
+
+        release.countDown();
+        CompletableFuture.allOf(blocker, upgrade, login).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("blocker", "login", "upgrade"), order);
+    }
+
+    @Test
+    void callerGivesUpAfterTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pool = new PasswordHashingPool(new BlockingEncoder(release, new CopyOnWriteArrayList<>()),
+                new SimpleMeterRegistry(), 1, 10, 50);
+
+        pool.encodeInBackground("blocker");
+        assertThrows(ServiceUnavailableException.class, () -> pool.matches("late", "hash"));
+        release.countDown();
+    }
+
+    /**
+     * Latency of a short exam-endpoint request while a class signs in at once, with real
+     * BCrypt cost. Run with {@code -Dbenchmark.logins=500}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.logins", matches = "\\d+")
+    void examEndpointsKeepTheirLatencyDuringLoginBurst() throws Exception {
+        int logins = Integer.getInteger("benchmark.logins");
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        String hash = encoder.encode("password123");
+        pool = new PasswordHashingPool(encoder, new SimpleMeterRegistry(), 2, logins, 60_000);
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(200);
+        try {
+            long[] idle = examLatencies(requestThreads);
+
+            List<Future<?>> burst = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                burst.add(requestThreads.submit(() -> pool.matches("password123", hash)));
+            }
+            long[] duringBurst = examLatencies(requestThreads);
+            for (Future<?> login : burst) {
+                login.get();
+            }
+
+            System.out.printf("exam request during %d logins: idle p95=%.2f ms, burst p95=%.2f ms%n",
+                    logins, p95(idle) / 1e6, p95(duringBurst) / 1e6);
+            assertTrue(p95(duringBurst) < Math.max(5 * p95(idle), TimeUnit.MILLISECONDS.toNanos(20)));
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private static long[] examLatencies(ExecutorService requestThreads) throws Exception {
+        long[] nanos = new long[200];
+        for (int i = 0; i < nanos.length; i++) {
+            long started = System.nanoTime();
+            requestThreads.submit(PasswordHashingPoolTest::examRequest).get();
+            nanos[i] = System.nanoTime() - started;
+        }
+        return nanos;
+    }
+
+    // Stand-in for serving a question page: a little CPU, no hashing
+    private static long examRequest() {
+        long sum = 0;
+        for (int i = 0; i < 50_000; i++) {
+            sum += Integer.toString(i).hashCode();
+        }
+        return sum;
+    }
+
+    private static long p95(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+    }
+
+    private void waitForQueue(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.queued() != size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(size, pool.queued());
+    }
+
+    private record BlockingEncoder(CountDownLatch release, List<String> order) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence raw) {
+            await();
+            order.add(raw.toString());
+            return "hash:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            await();
+            order.add(raw.toString());
+            return false;
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.Subject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionPagePayloadCacheTest {
+
+    private static final Long EXAM_ID = 1L;
+
+    @Mock
+    private ExamContentCache examContentCache;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private QuestionPagePayloadCache payloadCache;
+
+    @BeforeEach
+    void setUp() {
+        payloadCache = new QuestionPagePayloadCache(examContentCache, jsonMapper, 3);
+    }
+
+    @Test
+    void rendersOncePerSnapshotAndOmitsAnswerKey() throws Exception {
+        when(examContentCache.get(EXAM_ID)).thenReturn(snapshot(0, "What is 2 + 2?"));
+
+        QuestionPagePayloadCache.RenderedPage first = payloadCache.get(EXAM_ID, 0, 5);
+        QuestionPagePayloadCache.RenderedPage second = payloadCache.get(EXAM_ID, 0, 5);
+
+        assertSame(first, second, "Same page of the same snapshot should not be rendered twice");
+        assertNotEquals(first.etag(), first.gzipEtag());
+
+        JsonNode json = jsonMapper.readTree(first.json());
+        assertEquals("What is 2 + 2?", json.get("questions").get(0).get("content").asString());
+        assertFalse(json.get("questions").get(0).has("correctIndex"));
+
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(first.gzip())).readAllBytes();
+        assertArrayEquals(first.json(), unzipped);
+    }
+
+    @Test
+    void newSnapshotProducesNewEtag() {
+        when(examContentCache.get(EXAM_ID)).thenReturn(snapshot(0, "What is 2 + 2?"));
+        String before = payloadCache.get(EXAM_ID, 0, 5).etag();
+
+        when(examContentCache.get(EXAM_ID)).thenReturn(snapshot(1, "What is 3 + 3?"));
+        String after = payloadCache.get(EXAM_ID, 0, 5).etag();
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void pagesPastTheEndAreNotCached() {
+        when(examContentCache.get(EXAM_ID)).thenReturn(snapshot(0, "What is 2 + 2?"));
+
+        QuestionPagePayloadCache.RenderedPage first = payloadCache.get(EXAM_ID, 1_000_000, 5);
+        QuestionPagePayloadCache.RenderedPage second = payloadCache.get(EXAM_ID, 1_000_000, 5);
+
+        assertNotSame(first, second);
+        assertEquals(first.etag(), second.etag());
+        assertEquals(0, payloadCache.cachedPages());
+    }
+
+    @Test
+    void cachedPagesAreBoundedByEntryCount() {
+        when(examContentCache.get(EXAM_ID)).thenReturn(snapshot(0, "What is 2 + 2?"));
+
+        for (int size = 1; size <= 20; size++) {
+            payloadCache.get(EXAM_ID, 0, size);
+        }
+
+        assertEquals(3, payloadCache.cachedPages());
+    }
+
+    private ExamSnapshot snapshot(long version, String content) {
+        ExamSnapshot.QuestionSnapshot question = new ExamSnapshot.QuestionSnapshot(
+                10L, Subject.MATH, content, List.of("3", "4", "5"), 1);
+        return new ExamSnapshot(EXAM_ID, version, "Exam", 600,
+                List.of(question), Map.of(10L, question), Map.of(Subject.MATH, 1));
+    }
+}
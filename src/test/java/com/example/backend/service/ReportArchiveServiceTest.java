@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.ExamRepository;
+import com.example.backend.repository.ExamSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportArchiveServiceTest {
+
+
+    @Mock private ExamRepository examRepository;
+    @Mock private ExamSessionRepository examSessionRepository;
+    @Mock private ReportService reportService;
+
+    @TempDir
+    Path directory;
+
+    private ReportArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new ReportArchiveService(examRepository, examSessionRepository, reportService, 4, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveService.shutdown();
+    }
+
+    @Test
+    void entriesKeepSessionOrderDespiteParallelRendering() throws Exception {
+        List<ExamSessionRepository.ReportTargetRow> targets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            targets.add(new Target(UUID.randomUUID(), UUID.randomUUID(), "Ann", "Lee" + i));
+        }
+        when(reportService.getReport(any(), any())).thenAnswer(inv -> {
+            UUID sessionId = inv.getArgument(1);
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            Path file = Files.writeString(directory.resolve(sessionId + ".pdf"), "pdf " + sessionId);
+            return new ReportFileCache.CachedReport(file, Files.size(file), "\"" + sessionId + "\"");
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.writeArchive(targets, out);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ExamSessionRepository.ReportTargetRow target : targets) {
+                ZipEntry entry = zip.getNextEntry();
+                assertEquals(target.getLastName() + "_Ann_" + target.getSessionId() + ".pdf", entry.getName());
+                assertEquals("pdf " + target.getSessionId(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    void entryNamesKeepLettersOfAnyScript() throws Exception {
+        Target target = new Target(UUID.randomUUID(), UUID.randomUUID(), "Łukasz", "Müller-Żak O'Brien");
+        Path file = Files.writeString(directory.resolve("report.pdf"), "pdf");
+        when(reportService.getReport(target.getStudentId(), target.getSessionId()))
+                .thenAnswer(inv -> new ReportFileCache.CachedReport(file, Files.size(file), "\"etag\""));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.writeArchive(List.of(target), out);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8)) {
+            assertEquals("Müller-ŻakOBrien_Łukasz_" + target.getSessionId() + ".pdf", zip.getNextEntry().getName());
+        }
+    }
+
+    private record Target(UUID getSessionId, UUID getStudentId, String getFirstName, String getLastName)
+            implements ExamSessionRepository.ReportTargetRow {
+    }
+}
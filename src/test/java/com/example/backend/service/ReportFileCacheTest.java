@@ -0,0 +1,174 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportFileCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rendersOncePerRevisionAndDropsOlderRevisions() throws Exception {
+        ReportFileCache cache = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 1024);
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger renders = new AtomicInteger();
+
+        ReportFileCache.CachedReport first = cache.get(sessionId, 0, out -> pdf(renders, out, 10));
+        ReportFileCache.CachedReport again = cache.get(sessionId, 0, out -> pdf(renders, out, 10));
+        assertEquals(1, renders.get());
+        assertEquals(first.path(), again.path());
+        assertEquals(10, Files.size(first.path()));
+        first.close();
+        again.close();
+
+        ReportFileCache.CachedReport recomputed = cache.get(sessionId, 1, out -> pdf(renders, out, 12));
+        assertEquals(2, renders.get());
+        assertNotEquals(first.etag(), recomputed.etag());
+        assertFalse(Files.exists(first.path()), "Older revision should be removed");
+    }
+
+    @Test
+    void evictsLeastRecentlyServedWhenOverBudget() throws Exception {
+        ReportFileCache cache = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 250);
+        AtomicInteger renders = new AtomicInteger();
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+
+        Path pathA = served(cache.get(a, 0, out -> pdf(renders, out, 100)));
+        Path pathB = served(cache.get(b, 0, out -> pdf(renders, out, 100)));
+        served(cache.get(a, 0, out -> pdf(renders, out, 100)));
+        served(cache.get(c, 0, out -> pdf(renders, out, 100)));
+
+        assertTrue(Files.exists(pathA));
+        assertFalse(Files.exists(pathB), "b was the least recently served");
+    }
+
+    @Test
+    void picksUpReportsFromPreviousRun() throws Exception {
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger renders = new AtomicInteger();
+        served(new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 1024)
+                .get(sessionId, 0, out -> pdf(renders, out, 10)));
+
+        ReportFileCache restarted = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 1024);
+        restarted.get(sessionId, 0, out -> pdf(renders, out, 10));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void keepsAReportThatIsBeingReadUntilItIsClosed() throws Exception {
+        ReportFileCache cache = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 150);
+        AtomicInteger renders = new AtomicInteger();
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID();
+
+        ReportFileCache.CachedReport reading = cache.get(a, 0, out -> pdf(renders, out, 100));
+        ReportFileCache.CachedReport superseded = cache.get(b, 0, out -> pdf(renders, out, 100));
+        served(cache.get(b, 1, out -> pdf(renders, out, 100)));
+
+        // a was evicted and b's revision 0 dropped, but both are still being read
+        assertTrue(Files.exists(reading.path()));
+        assertTrue(Files.exists(superseded.path()));
+        superseded.close();
+        assertFalse(Files.exists(superseded.path()));
+        reading.close();
+        reading.close();
+        assertFalse(Files.exists(reading.path()));
+
+        // An evicted report is rendered again rather than served from the retired file
+        served(cache.get(a, 0, out -> pdf(renders, out, 100)));
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void concurrentMissesRenderOnce() throws Exception {
+        ReportFileCache cache = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 1024);
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Path>> reads = new ArrayList<>();
+            reads.add(readers.submit(() -> served(cache.get(sessionId, 0, out -> {
+                rendering.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                pdf(renders, out, 10);
+            }))));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                reads.add(readers.submit(() -> served(cache.get(sessionId, 0, out -> pdf(renders, out, 10)))));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<Path> read : reads) {
+                assertEquals(reads.get(0).get(5, TimeUnit.SECONDS), read.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, renders.get());
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    void aFailedRenderFailsItsWaitersAndIsRetried() throws Exception {
+        ReportFileCache cache = new ReportFileCache(new SimpleMeterRegistry(), directory.toString(), 1024);
+        UUID sessionId = UUID.randomUUID();
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Path> failing = readers.submit(() -> served(cache.get(sessionId, 0, out -> {
+                rendering.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                throw new IOException("font missing");
+            })));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            Future<Path> waiting = readers.submit(() -> served(cache.get(sessionId, 0, out -> pdf(renders, out, 10))));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertInstanceOf(IOException.class, assertThrows(ExecutionException.class, failing::get).getCause());
+            assertInstanceOf(IOException.class, assertThrows(ExecutionException.class,
+                    () -> waiting.get(5, TimeUnit.SECONDS)).getCause());
+            assertEquals(0, renders.get());
+        } finally {
+            readers.shutdownNow();
+        }
+
+        served(cache.get(sessionId, 0, out -> pdf(renders, out, 10)));
+        assertEquals(1, renders.get());
+    }
+
+    // Reads and releases the report, as a download does
+    private static Path served(ReportFileCache.CachedReport report) {
+        report.close();
+        return report.path();
+    }
+
+    private static void pdf(AtomicInteger renders, OutputStream out, int size) throws IOException {
+        renders.incrementAndGet();
+        out.write(new byte[size]);
+    }
+}
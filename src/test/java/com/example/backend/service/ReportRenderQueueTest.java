@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportRenderQueueTest {
+
+
+    @Mock
+    private ReportService reportService;
+
+    private ReportRenderQueue renderQueue;
+
+    @AfterEach
+    void tearDown() {
+        renderQueue.shutdown();
+    }
+
+    @Test
+    void downloadReusesBackgroundRender() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        renderQueue = new ReportRenderQueue(reportService, registry, 1, 100, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        UUID studentId = UUID.randomUUID(), blocker = UUID.randomUUID(), sessionId = UUID.randomUUID();
+        ReportFileCache.CachedReport report = report(sessionId);
+        List<String> callers = new CopyOnWriteArrayList<>();
+        when(reportService.getReport(studentId, blocker)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return report(blocker);
+        });
+        when(reportService.getReport(studentId, sessionId)).thenAnswer(inv -> {
+            callers.add(Thread.currentThread().getName());
+            return report;
+        });
+
+        // Keep the job queued until the download is waiting on it
+        renderQueue.enqueue(studentId, blocker);
+        renderQueue.enqueue(studentId, sessionId);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+
+        assertSame(report, renderQueue.getReport(studentId, sessionId));
+        releaser.join();
+        // The job rendered first; the download then only read the cache
+        assertEquals(List.of("report-render-1", Thread.currentThread().getName()), callers);
+        assertEquals(0, registry.counter("reports.prerender.jobs", "result", "fallback").count());
+    }
+
+    @Test
+    void requestedJobJumpsQueueAndFallsBackWhenNotDone() throws Exception {
+        renderQueue = new ReportRenderQueue(reportService, new SimpleMeterRegistry(), 1, 100, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        UUID student = UUID.randomUUID();
+        UUID blocker = UUID.randomUUID(), waiting = UUID.randomUUID(), requested = UUID.randomUUID();
+
+        when(reportService.getReport(student, blocker)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return report(blocker);
+        });
+        when(reportService.getReport(student, requested)).thenReturn(report(requested));
+
+        renderQueue.enqueue(student, blocker);
+        renderQueue.enqueue(student, waiting);
+        renderQueue.enqueue(student, requested);
+        assertEquals(2, renderQueue.queued());
+
+        // Worker is busy: the download falls back to rendering on the caller's thread
+        assertEquals(requested + ".pdf", renderQueue.getReport(student, requested).path().toString());
+        release.countDown();
+
+        // The promoted job ran before the one queued ahead of it
+        verify(reportService, timeout(1000).times(2)).getReport(student, requested);
+        verify(reportService, timeout(1000)).getReport(student, waiting);
+        var order = inOrder(reportService);
+        order.verify(reportService, times(2)).getReport(student, requested);
+        order.verify(reportService).getReport(student, waiting);
+    }
+
+    private static ReportFileCache.CachedReport report(UUID sessionId) {
+        return new ReportFileCache.CachedReport(Path.of(sessionId + ".pdf"), 1, "\"" + sessionId + "\"");
+    }
+}
@@ -1,18 +1,25 @@
 package com.example.backend.service;
 
 import com.example.backend.domain.Student;
+import com.example.backend.domain.Subject;
 import com.example.backend.dto.ExamResult;
+import com.example.backend.dto.SubjectScore;
 import com.example.backend.repository.StudentRepository;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,6 +38,8 @@ class ReportServiceAcceptanceTest {
         @InjectMocks
         private ReportService reportService;
 
+        private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2026, 5, 1, 10, 30);
+
         @Test
         void shouldGenerateValidPdfMeetingAcceptanceCriteria() throws Exception {
 
@@ -42,14 +51,14 @@ class ReportServiceAcceptanceTest {
                 student.setFirstname("John");
                 student.setLastname("Doe");
 
-                ExamResult result = new ExamResult(
-                                1, 2, 50.0,
-                                1, 2, 50.0,
+                ExamResult result = new ExamResult(Map.of(
+                                Subject.MATH, new SubjectScore(1, 2),
+                                Subject.ENGLISH, new SubjectScore(1, 2)),
                                 LocalDateTime.now());
 
                 when(studentRepository.findById(studentId))
                                 .thenReturn(Optional.of(student));
-                when(assessmentService.calculateResult(sessionId))
+                when(assessmentService.getResult(sessionId))
                                 .thenReturn(result);
 
                 byte[] pdf = reportService.generatePdf(studentId, sessionId);
@@ -77,4 +86,81 @@ class ReportServiceAcceptanceTest {
                 assertTrue(text.contains("Total: 2/4 (50.00%)"));
                 assertTrue(text.contains("Completed at:"));
         }
-}
\ No newline at end of file
+
+        @Test
+        void streamingWritesTheSameDocumentAsBuffered() throws Exception {
+
+                UUID studentId = UUID.randomUUID();
+                UUID sessionId = UUID.randomUUID();
+                stubReport(studentId, sessionId);
+
+                byte[] buffered = reportService.generatePdf(studentId, sessionId);
+
+                ResponseStream response = new ResponseStream();
+                reportService.writePdf(studentId, sessionId, response);
+
+                assertFalse(response.closed, "The caller owns the response stream");
+                assertEquals(withoutVolatileFields(buffered), withoutVolatileFields(response.toByteArray()));
+        }
+
+        @Test
+        @EnabledIfSystemProperty(named = "benchmark.reports", matches = "\\d+")
+        void streamingIsNotSlowerThanBuffering() throws Exception {
+
+                UUID studentId = UUID.randomUUID();
+                UUID sessionId = UUID.randomUUID();
+                stubReport(studentId, sessionId);
+
+                int rounds = Integer.getInteger("benchmark.reports");
+                for (int i = 0; i < 20; i++) {
+                        reportService.writePdf(studentId, sessionId, OutputStream.nullOutputStream());
+                        reportService.generatePdf(studentId, sessionId);
+                }
+
+                // Buffered: render into a byte[], then copy it into the response body
+                long started = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                        ByteArrayOutputStream response = new ByteArrayOutputStream();
+                        response.write(reportService.generatePdf(studentId, sessionId));
+                }
+                long bufferedNanos = System.nanoTime() - started;
+
+                // Streaming: PdfWriter writes to the response stream itself
+                started = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                        reportService.writePdf(studentId, sessionId, new ByteArrayOutputStream());
+                }
+                long streamedNanos = System.nanoTime() - started;
+
+                assertTrue(streamedNanos < bufferedNanos * 1.1,
+                                "streaming " + streamedNanos / rounds + " ns/report, buffered "
+                                                + bufferedNanos / rounds + " ns/report");
+        }
+
+        private void stubReport(UUID studentId, UUID sessionId) {
+                Student student = new Student();
+                student.setId(studentId);
+                student.setFirstname("John");
+                student.setLastname("Doe");
+
+                when(studentRepository.findById(studentId)).thenReturn(Optional.of(student));
+                when(assessmentService.getResult(sessionId))
+                                .thenReturn(new ExamResult(Map.of(Subject.MATH, new SubjectScore(1, 2)), COMPLETED_AT));
+        }
+
+        // The creation/modification dates and the file id differ on every render
+        private static String withoutVolatileFields(byte[] pdf) {
+                return new String(pdf, StandardCharsets.ISO_8859_1)
+                                .replaceAll("/(CreationDate|ModDate) ?\\(D:[^)]*\\)", "/$1()")
+                                .replaceAll("/ID ?\\[<[0-9a-fA-F]*> ?<[0-9a-fA-F]*>]", "/ID[]");
+        }
+
+        private static final class ResponseStream extends ByteArrayOutputStream {
+                boolean closed;
+
+                @Override
+                public void close() {
+                        closed = true;
+                }
+        }
+}
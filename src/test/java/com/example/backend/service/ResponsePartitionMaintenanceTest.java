@@ -0,0 +1,74 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class ResponsePartitionMaintenanceTest {
+
+    @Autowired private ResponsePartitionMaintenance maintenance;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createsMissingMonthsAheadOnce() {
+        YearMonth from = YearMonth.of(2031, 11);
+
+        assertEquals(4, maintenance.createAhead(from));
+        assertEquals(0, maintenance.createAhead(from));
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'student_responses'::regclass AND c.relname LIKE 'student_responses_203%'
+                ORDER BY c.relname
+                """, String.class);
+        assertEquals(List.of("student_responses_2031_11", "student_responses_2031_12",
+                "student_responses_2032_01", "student_responses_2032_02"), partitions);
+        assertEquals("FOR VALUES FROM ('2031-12-01 00:00:00') TO ('2032-01-01 00:00:00')",
+                jdbcTemplate.queryForObject("SELECT pg_get_expr(relpartbound, oid) FROM pg_class " +
+                        "WHERE relname = 'student_responses_2031_12'", String.class));
+    }
+
+    @Test
+    void movesRowsOutOfTheDefaultPartitionWhenTheirMonthIsCreated() {
+        Long examId = jdbcTemplate.queryForObject(
+                "INSERT INTO exams (title, time_limit_seconds) VALUES ('Stray exam', 3600) RETURNING id", Long.class);
+        Long questionId = jdbcTemplate.queryForObject("INSERT INTO questions (exam_id, subject, content, options, " +
+                "correct_index) VALUES (?, 'MATH', 'Q', '[\"a\", \"b\"]'::jsonb, 0) RETURNING id", Long.class, examId);
+        UUID studentId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO students (id, firstname, lastname, mobile_number, password, created_at) " +
+                "VALUES (?, 'Stray', 'Student', '6000000001', 'secret', now())", studentId);
+        UUID sessionId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2033, 5, 10, 9, 0);
+        jdbcTemplate.update("INSERT INTO exam_sessions (id, exam_id, student_id, status, start_time) " +
+                "VALUES (?, ?, ?, 'COMPLETED', ?)", sessionId, examId, studentId, start);
+        jdbcTemplate.update("INSERT INTO student_responses (session_id, session_start, question_id, chosen_index, " +
+                "is_correct, submitted_at) VALUES (?, ?, ?, 0, true, ?)", sessionId, start, questionId, start);
+        assertEquals(1, defaultRowsOf(sessionId));
+
+        assertEquals(4, maintenance.createAhead(YearMonth.of(2033, 5)));
+
+        assertEquals(0, defaultRowsOf(sessionId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM student_responses_2033_05 WHERE session_id = ?", Integer.class, sessionId));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM student_responses WHERE session_id = ? " +
+                "AND session_start = ?", Integer.class, sessionId, start));
+        assertEquals(0, maintenance.defaultRows());
+    }
+
+    private int defaultRowsOf(UUID sessionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM student_responses_default WHERE session_id = ?", Integer.class, sessionId);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.SessionResultRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResultExportServiceTest {
+
+    private static final UUID SESSION_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final LocalDateTime COMPLETED = LocalDateTime.of(2026, 5, 1, 10, 30);
+
+    @Mock
+    private SessionResultRepository sessionResultRepository;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ResultExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ResultExportService(sessionResultRepository, jsonMapper);
+    }
+
+    @Test
+    void csvQuotesFieldsAndClosesCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(sessionResultRepository.streamRows(null, null, null))
+                .thenReturn(Stream.of(row("Ann", "O\"Neil", "Math, Part 1")).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(ResultExportService.Format.CSV, null, null, null, out);
+
+        assertEquals(1, rows);
+        assertTrue(closed.get(), "Cursor must be closed after the export");
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("session_id,student_name,exam_title,score,total_questions,percentage,date", lines[0]);
+        assertEquals(SESSION_ID + ",\"Ann O\"\"Neil\",\"Math, Part 1\",30,40,75.00," + COMPLETED, lines[1]);
+    }
+
+    @Test
+    void csvNeutralisesFormulaCells() {
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\")\"", ResultExportService.csvField("=HYPERLINK(\"http://x\")"));
+        assertEquals("'+1", ResultExportService.csvField("+1"));
+        assertEquals("'-2", ResultExportService.csvField("-2"));
+        assertEquals("'@SUM(A1)", ResultExportService.csvField("@SUM(A1)"));
+        assertEquals("\"'=1,2\"", ResultExportService.csvField("=1,2"));
+        assertEquals("Ann-Marie", ResultExportService.csvField("Ann-Marie"));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() {
+        when(sessionResultRepository.streamRows(7L, null, null))
+                .thenReturn(Stream.of(row("Ann", "Lee", "Math"), row("Bo", "Kim", "Math")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(ResultExportService.Format.NDJSON, 7L, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = jsonMapper.readTree(lines[1]);
+        assertEquals("Bo Kim", second.get("studentName").asString());
+        assertEquals(30, second.get("score").asInt());
+    }
+
+    private static SessionResultRepository.ResultRow row(String firstName, String lastName, String examTitle) {
+        return new Row(firstName, lastName, examTitle);
+    }
+
+    private record Row(String getFirstName, String getLastName, String getExamTitle)
+            implements SessionResultRepository.ResultRow {
+
+        @Override public UUID getSessionId() { return SESSION_ID; }
+        @Override public int getTotalCorrect() { return 30; }
+        @Override public int getTotalQuestions() { return 40; }
+        @Override public double getTotalPercentage() { return 75.0; }
+        @Override public LocalDateTime getSubmitTime() { return COMPLETED; }
+        @Override public LocalDateTime getCompletedAt() { return COMPLETED; }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionDeadlineWheelTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private final MutableClock clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+    private SessionDeadlineWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 8 buckets of one second, no grace
+        wheel = new SessionDeadlineWheel(clock, 1000, 8, 0);
+    }
+
+    @Test
+    void expiresExactlyOnceAtDeadline() {
+        UUID sessionId = UUID.randomUUID();
+        wheel.schedule(sessionId, START, 60);
+
+        clock.advanceSeconds(59);
+        assertTrue(wheel.advance().isEmpty());
+        assertFalse(wheel.isExpired(sessionId));
+
+        clock.advanceSeconds(1);
+        assertEquals(List.of(sessionId), wheel.advance());
+        assertTrue(wheel.isExpired(sessionId), "Stays expired until the session is submitted");
+        assertTrue(wheel.advance().isEmpty());
+
+        wheel.cancel(sessionId);
+        assertFalse(wheel.isExpired(sessionId));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledDeadlinesNeverFire() {
+        UUID sessionId = UUID.randomUUID();
+        wheel.schedule(sessionId, START, 5);
+        wheel.cancel(sessionId);
+
+        clock.advanceSeconds(10);
+        assertTrue(wheel.advance().isEmpty());
+    }
+
+    @Test
+    void deadlinesAlreadyPastFireOnNextAdvance() {
+        UUID sessionId = UUID.randomUUID();
+        clock.advanceSeconds(3600);
+        wheel.advance();
+
+        wheel.schedule(sessionId, START, 60);
+        assertEquals(List.of(sessionId), wheel.advance());
+    }
+
+    @Test
+    void deadlinesRotationsAwayWaitForTheirRound() {
+        UUID sessionId = UUID.randomUUID();
+        wheel.schedule(sessionId, START, 20);
+
+        for (int second = 1; second < 20; second++) {
+            clock.advanceSeconds(1);
+            assertTrue(wheel.advance().isEmpty(), "Fired early at second " + second);
+        }
+        clock.advanceSeconds(1);
+        assertEquals(List.of(sessionId), wheel.advance());
+    }
+
+    @Test
+    void roundsSurviveAdvancesSkippingSeveralRotations() {
+        UUID sessionId = UUID.randomUUID();
+        wheel.schedule(sessionId, START, 30);
+        wheel.advance();
+
+        clock.advanceSeconds(27);
+        assertTrue(wheel.advance().isEmpty());
+        clock.advanceSeconds(2);
+        assertTrue(wheel.advance().isEmpty());
+        clock.advanceSeconds(1);
+        assertEquals(List.of(sessionId), wheel.advance());
+    }
+
+    @Test
+    void retriedDeadlineFiresAgainAndStaysExpired() {
+        UUID sessionId = UUID.randomUUID();
+        wheel.schedule(sessionId, START, 10);
+        clock.advanceSeconds(10);
+        assertEquals(List.of(sessionId), wheel.advance());
+
+        // The automatic submission cancels the deadline, then fails
+        wheel.cancel(sessionId);
+        wheel.retry(sessionId, 5000);
+        assertTrue(wheel.isExpired(sessionId));
+
+        clock.advanceSeconds(4);
+        assertTrue(wheel.advance().isEmpty());
+        clock.advanceSeconds(1);
+        assertEquals(List.of(sessionId), wheel.advance());
+    }
+
+    @Test
+    void handlesManyDeadlinesAcrossRotations() {
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(UUID.randomUUID(), START, i % 100);
+        }
+
+        int fired = 0;
+        for (int second = 0; second < 100; second++) {
+            List<UUID> expired = wheel.advance();
+            assertEquals(count / 100, expired.size(), "Deadlines at second " + second);
+            fired += expired.size();
+            clock.advanceSeconds(1);
+        }
+        assertEquals(count, fired);
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicReference<Instant> now;
+        private final ZoneId zone;
+
+        MutableClock(Instant now) {
+            this(new AtomicReference<>(now), ZoneOffset.UTC);
+        }
+
+        // Zone views share the instant, so advancing one advances them all
+        private MutableClock(AtomicReference<Instant> now, ZoneId zone) {
+            this.now = now;
+            this.zone = zone;
+        }
+
+        void advanceSeconds(long seconds) {
+            now.updateAndGet(instant -> instant.plusSeconds(seconds));
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(now, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+
+        @Override
+        public long millis() {
+            return now.get().toEpochMilli();
+        }
+    }
+}
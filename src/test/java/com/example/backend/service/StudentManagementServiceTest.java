@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.*;
+import com.example.backend.dto.AdminStudentViewDto;
+import com.example.backend.dto.StudentDirectoryWindow;
+import com.example.backend.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class StudentManagementServiceTest {
+
+    private static final int STUDENT_COUNT = 30;
+
+    @Autowired private StudentManagementService studentManagementService;
+    @Autowired private StudentRepository studentRepo;
+    @Autowired private ExamRepository examRepo;
+    @Autowired private ExamSessionRepository sessionRepo;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        Exam exam = new Exam();
+        exam.setTitle("Directory Exam");
+        exam.setTimeLimitSeconds(3600);
+        exam = examRepo.save(exam);
+
+        for (int i = 0; i < STUDENT_COUNT; i++) {
+            Student student = new Student();
+            student.setFirstname("Student");
+            student.setLastname("No" + i);
+            student.setMobileNumber(String.format("55500%05d", i));
+            student.setPassword("secret123");
+            student = studentRepo.save(student);
+
+            // i % 3: 0 = not taken, 1 = in progress, 2 = completed (after an earlier started one)
+            if (i % 3 >= 1) {
+                session(exam, student, SessionStatus.STARTED);
+            }
+            if (i % 3 == 2) {
+                session(exam, student, SessionStatus.COMPLETED);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void directoryPageResolvesStatusesInOneQuery() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        Page<AdminStudentViewDto> page = studentManagementService.getStudentDirectory(
+                PageRequest.of(0, STUDENT_COUNT, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        // page select + count + one grouped status query, whatever the page size;
+        // students created here are the newest, so they fill the page
+        assertEquals(3, stats.getPrepareStatementCount());
+        Map<String, Long> byStatus = page.getContent().stream()
+                .collect(Collectors.groupingBy(AdminStudentViewDto::getExamStatus, Collectors.counting()));
+        assertEquals(Map.of("NOT_TAKEN", 10L, "IN_PROGRESS", 10L, "COMPLETED", 10L), byStatus);
+    }
+
+    @Test
+    void keysetPagesCoverDirectoryOnce() {
+        Set<UUID> seen = new HashSet<>();
+        StudentDirectoryWindow window = studentManagementService.getStudentDirectoryAfter(null, null, 7);
+        while (true) {
+            window.students().forEach(s -> assertTrue(seen.add(s.getId()), "Student listed twice"));
+            if (window.nextId() == null) {
+                break;
+            }
+            window = studentManagementService.getStudentDirectoryAfter(window.nextCreatedAt(), window.nextId(), 7);
+        }
+        assertEquals(studentRepo.count(), seen.size());
+    }
+
+    private void session(Exam exam, Student student, SessionStatus status) {
+        ExamSession session = new ExamSession();
+        session.setExam(exam);
+        session.setStudent(student);
+        session.setStatus(status);
+        sessionRepo.save(session);
+    }
+}
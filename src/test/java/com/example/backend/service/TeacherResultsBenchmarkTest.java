@@ -0,0 +1,103 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TeacherStudentResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Response-time benchmark of the teacher results listing. Seeds the number of graded
+ * sessions given by {@code -Dbenchmark.sessions} (e.g. 1000000) with set-based SQL and
+ * rolls everything back afterwards.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark.sessions", matches = "\\d+")
+public class TeacherResultsBenchmarkTest {
+
+    /** p95 target for one page of results, filters and sort included. */
+    private static final long TARGET_P95_MILLIS = 100;
+    private static final int RUNS = 20;
+
+    @Autowired private ExamAuthoringService examAuthoringService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long examId;
+
+    @BeforeEach
+    void seed() {
+        int sessions = Integer.getInteger("benchmark.sessions");
+        int students = Math.max(1, sessions / 100);
+
+        jdbcTemplate.update("INSERT INTO exams (title, time_limit_seconds) " +
+                "SELECT 'Benchmark exam ' || g, 3600 FROM generate_series(1, 10) g");
+        examId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM exams WHERE title LIKE 'Benchmark exam %'", Long.class);
+
+        jdbcTemplate.update("INSERT INTO students (id, firstname, lastname, mobile_number, password, created_at) " +
+                "SELECT gen_random_uuid(), 'Bench', 'Student' || g, '8' || lpad(g::text, 9, '0'), 'secret', now() " +
+                "FROM generate_series(1, ?) g", students);
+
+        // Exam ids come from a pooled sequence and are not consecutive: join on their rank
+        jdbcTemplate.update("""
+                WITH e AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM exams
+                           WHERE title LIKE 'Benchmark exam %'),
+                     s AS (SELECT id, row_number() OVER () AS n FROM students WHERE firstname = 'Bench'),
+                     sessions AS (
+                         SELECT gen_random_uuid() AS id, g
+                         FROM generate_series(1, ?) g)
+                INSERT INTO exam_sessions (id, exam_id, student_id, status, start_time, submit_time,
+                                           subject_counters)
+                SELECT sessions.id, e.id, s.id, 'COMPLETED',
+                       now() - (g % 365) * interval '1 day', now() - (g % 365) * interval '1 day',
+                       jsonb_build_object('MATH', jsonb_build_object('correct', g % 21, 'total', 20),
+                                          'ENGLISH', jsonb_build_object('correct', (g * 7) % 21, 'total', 20))
+                FROM sessions JOIN s ON s.n = 1 + (sessions.g % ?) JOIN e ON e.n = sessions.g % 10
+                """, sessions, students);
+
+        jdbcTemplate.update("""
+                INSERT INTO session_results (session_id, subject_scores, total_correct, total_questions,
+                                             total_percentage, completed_at, revision)
+                SELECT id, subject_counters, c.correct, 40, c.correct * 2.5, submit_time, 0
+                FROM exam_sessions,
+                     LATERAL (SELECT (subject_counters -> 'MATH' ->> 'correct')::int
+                                     + (subject_counters -> 'ENGLISH' ->> 'correct')::int AS correct) c
+                WHERE student_id IN (SELECT id FROM students WHERE firstname = 'Bench')
+                """);
+        jdbcTemplate.execute("ANALYZE exam_sessions");
+        jdbcTemplate.execute("ANALYZE session_results");
+    }
+
+    @Test
+    void filteredPageMeetsTarget() {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        PageRequest pageable = PageRequest.of(5, 50, Sort.by(Sort.Direction.DESC, "totalPercentage"));
+
+        long[] millis = new long[RUNS];
+        Page<TeacherStudentResultDto> page = null;
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            page = examAuthoringService.getStudentResults(examId, from, null, 50.0, 90.0, pageable);
+            millis[i] = (System.nanoTime() - started) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        long p95 = millis[(int) Math.ceil(RUNS * 0.95) - 1];
+
+        System.out.printf("teacher results (%s sessions): p50=%d ms, p95=%d ms, %d matching rows%n",
+                System.getProperty("benchmark.sessions"), millis[RUNS / 2], p95, page.getTotalElements());
+        long expected = Math.min(pageable.getPageSize(), Math.max(0, page.getTotalElements() - pageable.getOffset()));
+        assertEquals(expected, page.getNumberOfElements());
+        assertTrue(p95 <= TARGET_P95_MILLIS, "p95 " + p95 + " ms exceeds " + TARGET_P95_MILLIS + " ms");
+    }
+}
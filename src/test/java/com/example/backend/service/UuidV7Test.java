@@ -0,0 +1,39 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void carriesVersionVariantAndTimestamp() {
+        long millis = 1_767_225_600_123L;
+        UUID id = UuidV7.at(millis);
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(millis, id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void laterIdsSortAfterEarlierOnes() {
+        UUID earlier = UuidV7.at(1_000);
+        UUID later = UuidV7.at(1_001);
+
+        assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+    }
+
+    @Test
+    void idsInTheSameMillisecondDiffer() {
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(UuidV7.at(42));
+        }
+        assertEquals(1_000, ids.size());
+    }
+}
@@ -0,0 +1,88 @@
+-- Schema Hibernate generated with ddl-auto=create from the entities of the baseline commit,
+-- captured with jakarta.persistence.schema-generation.scripts.action=create. MigrationUpgradeTest
+-- builds a database from it and migrates that to the latest version.
+
+    create table app_users (
+        id uuid not null,
+        role varchar(20) not null check ((role in ('ADMIN','MANAGER','TEACHER'))),
+        username varchar(50) not null unique,
+        full_name varchar(100),
+        password_hash varchar(255) not null,
+        primary key (id)
+    );
+
+    create table exam_sessions (
+        exam_id bigint not null,
+        start_time timestamp(6) not null,
+        submit_time timestamp(6),
+        id uuid not null,
+        student_id uuid not null,
+        status varchar(255) not null check ((status in ('STARTED','SUBMITTED','COMPLETED','EXPIRED'))),
+        primary key (id)
+    );
+
+    create table exams (
+        time_limit_seconds integer not null,
+        id bigint generated by default as identity,
+        title varchar(255) not null,
+        primary key (id)
+    );
+
+    create table questions (
+        correct_index integer,
+        exam_id bigint not null,
+        id bigint generated by default as identity,
+        content TEXT,
+        subject varchar(255) check ((subject in ('MATH','ENGLISH'))),
+        options jsonb,
+        primary key (id)
+    );
+
+    create table student_responses (
+        chosen_index integer,
+        is_correct boolean,
+        id bigint generated by default as identity,
+        question_id bigint not null,
+        submitted_at timestamp(6),
+        session_id uuid not null,
+        primary key (id),
+        constraint uc_session_question unique (session_id, question_id)
+    );
+
+    create table students (
+        created_at timestamp(6),
+        id uuid not null,
+        firstname varchar(50) not null,
+        lastname varchar(50) not null,
+        mobile_number varchar(255) not null,
+        password varchar(255) not null,
+        primary key (id)
+    );
+
+    create index idx_student_status 
+       on exam_sessions (student_id, status);
+
+    alter table if exists exam_sessions 
+       add constraint FKm60na3ox1i5yx7v4ti1i53h5i 
+       foreign key (exam_id) 
+       references exams;
+
+    alter table if exists exam_sessions 
+       add constraint FKcir67k4u8kjk2a8970kjl3epr 
+       foreign key (student_id) 
+       references students;
+
+    alter table if exists questions 
+       add constraint FKrk78bmt53fns7np8casqa3q44 
+       foreign key (exam_id) 
+       references exams;
+
+    alter table if exists student_responses 
+       add constraint FK5sstgutiayg4h10omdyn06ksk 
+       foreign key (question_id) 
+       references questions;
+
+    alter table if exists student_responses 
+       add constraint FK8914ns8magopu8wbjtgbsjjcy 
+       foreign key (session_id) 
+       references exam_sessions;